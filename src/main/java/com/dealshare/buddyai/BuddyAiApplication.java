@@ -3,9 +3,13 @@ package com.dealshare.buddyai;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableMongoRepositories
+@EnableScheduling
+@EnableAsync
 public class BuddyAiApplication {
     public static void main(String[] args) {
         SpringApplication.run(BuddyAiApplication.class, args);
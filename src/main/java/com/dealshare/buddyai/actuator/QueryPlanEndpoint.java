@@ -0,0 +1,33 @@
+package com.dealshare.buddyai.actuator;
+
+import com.dealshare.buddyai.dto.QueryPlanDTO;
+import com.dealshare.buddyai.service.MongoIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/queryplans returns the last verified plan per query shape;
+ * POST re-runs the explain pass (e.g. after creating an index by hand).
+ */
+@Component
+@Endpoint(id = "queryplans")
+@RequiredArgsConstructor
+public class QueryPlanEndpoint {
+
+    private final MongoIndexService mongoIndexService;
+
+    @ReadOperation
+    public List<QueryPlanDTO> queryPlans() {
+        return mongoIndexService.getPlanSummary();
+    }
+
+    @WriteOperation
+    public List<QueryPlanDTO> verify() {
+        return mongoIndexService.verifyQueryPlans();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dealshare.buddyai.controller;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * If-None-Match handling for the endpoints that serve pre-rendered bodies with an ETag.
+ * Uses weak comparison as Spring's ServletWebRequest.checkNotModified does: the header may
+ * list several tags, any of them may carry a W/ prefix, and "*" matches every tag.
+ */
+final class ETags {
+
+    private static final Pattern TAG = Pattern.compile("\\*|\\s*((W/)?(\"[^\"]*\"))\\s*,?");
+
+    private ETags() {
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String current = strip(etag);
+        Matcher matcher = TAG.matcher(ifNoneMatch);
+        while (matcher.find()) {
+            if ("*".equals(matcher.group()) || current.equals(matcher.group(3))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String strip(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
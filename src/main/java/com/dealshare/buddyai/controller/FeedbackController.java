@@ -1,16 +1,19 @@
 package com.dealshare.buddyai.controller;
 
+import com.dealshare.buddyai.dto.CursorPageDTO;
 import com.dealshare.buddyai.dto.FeedbackRequestDTO;
+import com.dealshare.buddyai.dto.FeedbackStatsDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.model.Feedback;
+import com.dealshare.buddyai.service.FeedbackIngestor;
 import com.dealshare.buddyai.service.FeedbackService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/feedback")
@@ -26,6 +29,20 @@ public class FeedbackController {
         log.info("Submit feedback request - user_id: {}, order_id: {}", 
                 request.getUser_id(), request.getOrder_id());
         
+        if (feedbackService.isAsyncIngestion()) {
+            try {
+                ResponseDTO<Feedback> response = feedbackService.acceptFeedback(request);
+                if (response.isSuccess()) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+                }
+                return ResponseEntity.badRequest().body(response);
+            } catch (FeedbackIngestor.QueueFullException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new ResponseDTO<>(false, e.getMessage(), null));
+            }
+        }
+
         ResponseDTO<Feedback> response = feedbackService.submitFeedback(request);
         
         if (response.isSuccess()) {
@@ -35,24 +52,36 @@ public class FeedbackController {
         }
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<ResponseDTO<FeedbackStatsDTO>> getStats(
+            @RequestParam(defaultValue = "30") Integer days) {
+        log.info("Get feedback stats - days: {}", days);
+
+        ResponseDTO<FeedbackStatsDTO> response = feedbackService.getStats(days);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ResponseDTO<List<Feedback>>> getFeedbackByUser(
+    public ResponseEntity<ResponseDTO<CursorPageDTO<Feedback>>> getFeedbackByUser(
             @PathVariable Integer userId,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "20") Integer limit) {
-        log.info("Get feedback by user - user_id: {}, limit: {}", userId, limit);
+        log.info("Get feedback by user - user_id: {}, after: {}, limit: {}", userId, after, limit);
         
-        ResponseDTO<List<Feedback>> response = feedbackService.getFeedbackByUser(userId, limit);
+        ResponseDTO<CursorPageDTO<Feedback>> response = feedbackService.getFeedbackByUser(userId, after, limit);
         
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<ResponseDTO<List<Feedback>>> getFeedbackByOrder(
+    public ResponseEntity<ResponseDTO<CursorPageDTO<Feedback>>> getFeedbackByOrder(
             @PathVariable Integer orderId,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "20") Integer limit) {
-        log.info("Get feedback by order - order_id: {}, limit: {}", orderId, limit);
+        log.info("Get feedback by order - order_id: {}, after: {}, limit: {}", orderId, after, limit);
         
-        ResponseDTO<List<Feedback>> response = feedbackService.getFeedbackByOrder(orderId, limit);
+        ResponseDTO<CursorPageDTO<Feedback>> response = feedbackService.getFeedbackByOrder(orderId, after, limit);
         
         return ResponseEntity.ok(response);
     }
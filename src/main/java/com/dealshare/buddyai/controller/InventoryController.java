@@ -0,0 +1,57 @@
+package com.dealshare.buddyai.controller;
+
+import com.dealshare.buddyai.dto.InventoryImportResultDTO;
+import com.dealshare.buddyai.dto.ResponseDTO;
+import com.dealshare.buddyai.service.InventoryImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryImportService inventoryImportService;
+
+    /**
+     * Stream a stock/price feed into the catalog
+     * POST /api/inventory/import   (Content-Type: application/x-ndjson or text/csv)
+     * NDJSON line: {"product_id": 1001, "available_stock": 120, "price": 45.0}
+     * CSV header:  product_id,sku_code,available_stock,price,discounted_price
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ResponseDTO<InventoryImportResultDTO>> importFeed(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format
+    ) {
+        String effectiveFormat = format != null ? format : detectFormat(request.getContentType());
+        log.info("Inventory import started - format: {}", effectiveFormat);
+        
+        try {
+            InventoryImportResultDTO result = inventoryImportService.importFeed(request.getInputStream(), effectiveFormat);
+            return ResponseEntity.ok(ResponseDTO.<InventoryImportResultDTO>builder()
+                    .success(true)
+                    .message("Imported " + result.getRows_matched() + " of " + result.getRows_read() + " row(s)")
+                    .data(result)
+                    .build());
+        } catch (Exception e) {
+            log.error("Error importing inventory feed", e);
+            return ResponseEntity.badRequest().body(ResponseDTO.<InventoryImportResultDTO>builder()
+                    .success(false)
+                    .message("Error importing inventory: " + e.getMessage())
+                    .data(null)
+                    .build());
+        }
+    }
+
+    private String detectFormat(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("csv")) {
+            return InventoryImportService.FORMAT_CSV;
+        }
+        return InventoryImportService.FORMAT_NDJSON;
+    }
+}
@@ -1,35 +1,66 @@
 package com.dealshare.buddyai.controller;
 
+import com.dealshare.buddyai.dto.CursorPageDTO;
+import com.dealshare.buddyai.dto.OrderStatusUpdateDTO;
+import com.dealshare.buddyai.dto.OrderSummaryDTO;
 import com.dealshare.buddyai.dto.PlaceOrderRequestDTO;
 import com.dealshare.buddyai.dto.PlaceOrderResponseDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.service.IdempotencyService;
+import com.dealshare.buddyai.service.InventoryReservationService;
+import com.dealshare.buddyai.service.OrderEventService;
 import com.dealshare.buddyai.service.OrderService;
+import com.dealshare.buddyai.service.OrderSummaryService;
+import com.dealshare.buddyai.service.OrderWriter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "http://localhost:3000")
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderEventService orderEventService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService,
+                           OrderSummaryService orderSummaryService, OrderEventService orderEventService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.orderSummaryService = orderSummaryService;
+        this.orderEventService = orderEventService;
     }
 
     @PostMapping
-    public ResponseEntity<ResponseDTO<PlaceOrderResponseDTO>> placeOrder(@RequestBody PlaceOrderRequestDTO request) {
+    public ResponseEntity<ResponseDTO<PlaceOrderResponseDTO>> placeOrder(
+            @RequestBody PlaceOrderRequestDTO request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             System.out.println("Received order request: " + request);
-            PlaceOrderResponseDTO response = orderService.placeOrder(request);
+            PlaceOrderResponseDTO response = idempotencyKey == null || idempotencyKey.isBlank()
+                    ? orderService.placeOrder(request)
+                    : idempotencyService.execute(idempotencyKey.trim(), request, () -> orderService.placeOrder(request));
             return ResponseEntity.ok(new ResponseDTO<>(true, "Order placed successfully", response));
+        } catch (InventoryReservationService.InsufficientStockException
+                 | IdempotencyService.IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseDTO<>(false, e.getMessage(), null));
+        } catch (OrderWriter.OrderWriteTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ResponseDTO<>(false, e.getMessage(), null));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -37,19 +68,83 @@ public class OrderController {
         }
     }
 
+    /**
+     * GET /api/orders?userId=1&after=<next_cursor>&limit=20
+     */
     @GetMapping
-    public ResponseEntity<ResponseDTO<Object>> getAllOrders() {
+    public ResponseEntity<ResponseDTO<CursorPageDTO<Order>>> getOrders(
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            System.out.println("Fetching all orders");
-            Object orders = orderService.getAllOrders();
+            log.debug("Fetching orders - userId: {}, after: {}", userId, after);
+            CursorPageDTO<Order> orders = orderService.getOrders(userId, after, limit);
             return ResponseEntity.ok(new ResponseDTO<>(true, "Orders fetched successfully", orders));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ResponseDTO<>(false, e.getMessage(), null));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error fetching orders - userId: {}, after: {}", userId, after, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ResponseDTO<>(false, "Error fetching orders: " + e.getMessage(), null));
         }
     }
 
+    /**
+     * Stream orders as newline-delimited JSON for exports
+     * GET /api/orders/stream?userId=1
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam(required = false) Integer userId) {
+        log.info("Streaming orders - userId: {}", userId);
+        StreamingResponseBody body = out -> orderService.streamOrders(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Recent orders, status counts and frequently bought products for a user
+     * GET /api/orders/summary/1
+     */
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<ResponseDTO<OrderSummaryDTO>> getOrderSummary(@PathVariable int userId) {
+        try {
+            OrderSummaryDTO summary = orderSummaryService.getSummary(userId);
+            if (summary == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ResponseDTO<>(false, "No orders found for user", null));
+            }
+            return ResponseEntity.ok(new ResponseDTO<>(true, "Order summary found", summary));
+        } catch (Exception e) {
+            log.error("Error fetching order summary for user {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ResponseDTO<>(false, "Error fetching order summary: " + e.getMessage(), null));
+        }
+    }
+
+    @PutMapping("/{orderId}/status")
+    public ResponseEntity<ResponseDTO<Order>> updateOrderStatus(@PathVariable int orderId,
+                                                                @RequestBody OrderStatusUpdateDTO request) {
+        try {
+            log.info("Updating status of order {} to {}", orderId, request.getStatus());
+            Optional<Order> order = orderService.updateOrderStatus(orderId, request.getStatus());
+            if (order.isPresent()) {
+                return ResponseEntity.ok(new ResponseDTO<>(true, "Order status updated", order.get()));
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ResponseDTO<>(false, "Order not found", null));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ResponseDTO<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error updating status of order {}", orderId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ResponseDTO<>(false, "Error updating order status: " + e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<ResponseDTO<Order>> getOrderById(@PathVariable int orderId) {
         try {
@@ -68,6 +163,18 @@ public class OrderController {
         }
     }
 
+    /**
+     * Server-Sent Events stream of status updates, starting with the current status
+     * GET /api/orders/10023/events
+     */
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderEvents(@PathVariable int orderId) {
+        log.debug("Subscribing to order events for order ID: {}", orderId);
+        return orderEventService.subscribe(orderId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{orderId}/items")
     public ResponseEntity<ResponseDTO<Object>> getOrderItems(@PathVariable int orderId) {
         try {
@@ -1,13 +1,24 @@
 package com.dealshare.buddyai.controller;
 
+import com.dealshare.buddyai.dto.BulkItemResultDTO;
+import com.dealshare.buddyai.dto.CursorPageDTO;
+import com.dealshare.buddyai.dto.ProductAttributeUpdateDTO;
 import com.dealshare.buddyai.dto.ProductDetailsDTO;
 import com.dealshare.buddyai.dto.ProductImageUpdateDTO;
+import com.dealshare.buddyai.dto.ProductSuggestionDTO;
+import com.dealshare.buddyai.dto.ProductTileDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.service.ProductService;
+import com.dealshare.buddyai.service.ProductSuggestService;
+import com.dealshare.buddyai.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -20,25 +31,67 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSuggestService productSuggestService;
+    private final RecommendationService recommendationService;
 
     /**
-     * Search products with optional filters
-     * GET /api/products/search?keyword=sugar&category=Grocery
+     * Search products with optional filters, paged by product_id cursor
+     * GET /api/products/search?keyword=sugar&category=Grocery&after=1042&limit=50
      */
     @GetMapping("/search")
-    public ResponseEntity<ResponseDTO<List<ProductDetailsDTO>>> searchProducts(
+    public ResponseEntity<ResponseDTO<CursorPageDTO<ProductTileDTO>>> searchProducts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("Searching products - keyword: {}, category: {}, after: {}", keyword, category, after);
+        
+        try {
+            ResponseDTO<CursorPageDTO<ProductTileDTO>> response = productService.searchProducts(
+                keyword, category, minPrice, maxPrice, after, limit
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseDTO.<CursorPageDTO<ProductTileDTO>>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        }
+    }
+
+    /**
+     * Stream matching products as newline-delimited JSON
+     * GET /api/products/stream?category=Beverages
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice
     ) {
-        log.info("Searching products - keyword: {}, category: {}", keyword, category);
+        log.info("Streaming products - keyword: {}, category: {}", keyword, category);
         
-        ResponseDTO<List<ProductDetailsDTO>> response = productService.searchProducts(
-            keyword, category, minPrice, maxPrice
-        );
+        StreamingResponseBody body = out -> productService.streamProducts(keyword, category, minPrice, maxPrice, out);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Typeahead suggestions from the in-memory index (no database access)
+     * GET /api/products/suggest?prefix=tom&limit=5
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ResponseDTO<List<ProductSuggestionDTO>>> suggest(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false, defaultValue = "10") Integer limit
+    ) {
+        return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
     }
 
     /**
@@ -59,31 +112,65 @@ public class ProductController {
     }
 
     /**
-     * Get product recommendations
+     * Get single product by SKU code
+     * GET /api/products/sku/{skuCode}
+     */
+    @GetMapping("/sku/{skuCode}")
+    public ResponseEntity<ResponseDTO<ProductDetailsDTO>> getProductBySku(@PathVariable String skuCode) {
+        log.info("Fetching product with SKU: {}", skuCode);
+        
+        ResponseDTO<ProductDetailsDTO> response = productService.getProductBySku(skuCode);
+        
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get product recommendations from the in-memory snapshot
      * GET /api/products/recommendations
+     * Supports If-None-Match; unchanged snapshots answer 304 with no body.
      */
     @GetMapping("/recommendations")
-    public ResponseEntity<ResponseDTO<List<ProductDetailsDTO>>> getRecommendations(
-            @RequestParam(required = false, defaultValue = "10") Integer limit
+    public ResponseEntity<byte[]> getRecommendations(
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.info("Fetching {} product recommendations", limit);
         
-        ResponseDTO<List<ProductDetailsDTO>> response = productService.getRecommendations(limit);
+        RecommendationService.Rendered rendered = recommendationService.render(limit);
         
-        return ResponseEntity.ok(response);
+        if (ETags.matches(ifNoneMatch, rendered.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(rendered.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(rendered.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.getBody());
     }
 
     /**
-     * Get all products (no filters)
-     * GET /api/products
+     * Get all products (no filters), paged by product_id cursor
+     * GET /api/products?after=1042&limit=50
      */
     @GetMapping
-    public ResponseEntity<ResponseDTO<List<ProductDetailsDTO>>> getAllProducts() {
-        log.info("Fetching all products");
-        
-        ResponseDTO<List<ProductDetailsDTO>> response = productService.getAllProducts();
+    public ResponseEntity<ResponseDTO<CursorPageDTO<ProductDetailsDTO>>> getAllProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("Fetching products - after: {}, limit: {}", after, limit);
         
-        return ResponseEntity.ok(response);
+        try {
+            ResponseDTO<CursorPageDTO<ProductDetailsDTO>> response = productService.getAllProducts(after, limit);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseDTO.<CursorPageDTO<ProductDetailsDTO>>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        }
     }
 
     /**
@@ -92,10 +179,10 @@ public class ProductController {
      * Body: { "imageMappings": { "1": "https://...", "2": "https://...", ... } }
      */
     @PostMapping("/update-images")
-    public ResponseEntity<ResponseDTO<String>> updateProductImages(@RequestBody ProductImageUpdateDTO request) {
+    public ResponseEntity<ResponseDTO<List<BulkItemResultDTO>>> updateProductImages(@RequestBody ProductImageUpdateDTO request) {
         log.info("Updating product images for {} products", request.getImageMappings().size());
         
-        ResponseDTO<String> response = productService.updateProductImages(request.getImageMappings());
+        ResponseDTO<List<BulkItemResultDTO>> response = productService.updateProductImages(request.getImageMappings());
         
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
@@ -103,7 +190,22 @@ public class ProductController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
-
-
 
+    /**
+     * Partially update product attributes in bulk
+     * POST /api/products/bulk-update
+     * Body: [ { "product_id": 1, "price": 49.0, "available_stock": 120 }, ... ]
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<ResponseDTO<List<BulkItemResultDTO>>> bulkUpdate(@RequestBody List<ProductAttributeUpdateDTO> updates) {
+        log.info("Bulk updating {} products", updates.size());
+        
+        ResponseDTO<List<BulkItemResultDTO>> response = productService.bulkUpdate(updates);
+        
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -4,10 +4,14 @@ import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -26,6 +30,31 @@ public class ProfileController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Get a user's profile from the near-cache
+     * GET /api/profile/{userId}
+     * Supports If-None-Match; an unchanged profile answers 304 with no body.
+     */
+    @GetMapping("/profile/{userId}")
+    public ResponseEntity<?> getProfile(
+            @PathVariable Integer userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Get profile request - user_id: {}", userId);
+
+        Optional<UserService.Rendered> rendered = userService.renderProfile(userId);
+        if (rendered.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ResponseDTO<>(false, "User not found", null));
+        }
+        if (ETags.matches(ifNoneMatch, rendered.get().getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(rendered.get().getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(rendered.get().getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.get().getBody());
+    }
 }
 
 
@@ -0,0 +1,16 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private Integer product_id;
+    private String status; // updated, not_found, invalid, failed
+    private String error;
+}
@@ -24,6 +24,6 @@ public class ChatResponseDTO {
     private List<Map<String, Object>> brand_options;
     private Boolean show_feedback_modal;
     private Map<String, Object> feedback_context;
-    private List<Map<String, Object>> products; // Product tiles to display in chat
+    private List<ProductTileDTO> products; // Product tiles to display in chat
 }
 
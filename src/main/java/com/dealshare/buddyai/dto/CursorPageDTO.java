@@ -0,0 +1,20 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    // Token to pass back unchanged as "after" for the next page (the last product_id for
+    // product listings, an encoded timestamp and ID elsewhere); null on the last page
+    private String next_cursor;
+    private Boolean has_more;
+}
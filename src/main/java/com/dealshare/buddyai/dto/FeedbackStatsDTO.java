@@ -0,0 +1,45 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackStatsDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private Long total;
+    private Double average_rating;
+    private Map<String, Long> rating_distribution;
+    private Map<String, Breakdown> by_category;
+    private Map<String, Breakdown> by_channel;
+    // Oldest first, days without feedback omitted
+    private List<DailyVolume> daily;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Breakdown {
+        private Long count;
+        private Double average_rating;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyVolume {
+        private LocalDate day;
+        private Long count;
+        private Double average_rating;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportResultDTO {
+    private Long rows_read;
+    private Long rows_matched;
+    private Long rows_not_found;
+    private Long rows_rejected;
+    private Integer batches;
+    private Long duration_ms;
+    private Double rows_per_second;
+    private List<String> errors; // First few rejected rows, for diagnosis
+}
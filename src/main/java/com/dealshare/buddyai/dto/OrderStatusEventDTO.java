@@ -0,0 +1,19 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEventDTO {
+    private Integer order_id;
+    private String status;
+    private String previous_status;
+    private LocalDateTime changed_at;
+}
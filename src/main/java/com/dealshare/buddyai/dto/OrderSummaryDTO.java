@@ -0,0 +1,26 @@
+package com.dealshare.buddyai.dto;
+
+import com.dealshare.buddyai.model.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Integer user_id;
+    private Integer total_orders;
+    private Double total_spent;
+    private LocalDateTime last_order_at;
+    private Map<String, Integer> status_counts;
+    private List<OrderSummary.RecentOrder> recent_orders;
+    // Most bought first
+    private List<Integer> frequently_bought;
+}
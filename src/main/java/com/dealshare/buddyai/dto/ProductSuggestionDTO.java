@@ -0,0 +1,19 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO {
+    private Integer product_id;
+    private String product_name;
+    private String brand;
+    private String category;
+    private Double discounted_price;
+    private String image_url;
+}
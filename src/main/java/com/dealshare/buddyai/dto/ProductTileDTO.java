@@ -0,0 +1,28 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight product view for search results and chat tiles.
+ * Property names match the Mongo field names, so projection queries map straight into it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTileDTO {
+    private Integer product_id;
+    private String product_name;
+    private String brand;
+    private String category;
+    private Double price;
+    private Double discounted_price;
+    private Integer available_stock;
+    private String sku_code;
+    private String image_url;
+    private Double rating;
+    private Boolean is_popular;
+}
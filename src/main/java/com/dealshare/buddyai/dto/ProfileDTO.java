@@ -0,0 +1,20 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileDTO {
+    private Integer user_id;
+    private String name;
+    private String phone;
+    private String email;
+    private String address;
+    private String city;
+    private String pincode;
+}
@@ -0,0 +1,19 @@
+package com.dealshare.buddyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryPlanDTO {
+    private String query;
+    private String collection;
+    private String filter;
+    private String sort;
+    private String plan; // Winning plan stages, outermost first, e.g. "FETCH > IXSCAN(product_id_unique)"
+    private Boolean collscan;
+}
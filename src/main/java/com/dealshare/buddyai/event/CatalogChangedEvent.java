@@ -0,0 +1,19 @@
+package com.dealshare.buddyai.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after product documents are written, so derived in-memory views
+ * (suggestion index, recommendation snapshot) can rebuild themselves.
+ */
+@Getter
+public class CatalogChangedEvent extends ApplicationEvent {
+
+    private final String reason;
+
+    public CatalogChangedEvent(Object source, String reason) {
+        super(source);
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dealshare.buddyai.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService when an order is placed (previousStatus null) or its
+ * status changes, so order tracking and chat context can follow it without polling.
+ */
+@Getter
+public class OrderStatusChangedEvent extends ApplicationEvent {
+
+    private final int orderId;
+    private final int userId;
+    private final String status;
+    private final String previousStatus;
+    private final LocalDateTime changedAt;
+
+    public OrderStatusChangedEvent(Object source, int orderId, int userId, String status,
+                                   String previousStatus, LocalDateTime changedAt) {
+        super(source);
+        this.orderId = orderId;
+        this.userId = userId;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.dealshare.buddyai.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Feedback counters for one day, category and channel, maintained by FeedbackStatsService.
+ * The ID is the compound document {day, category, channel}, so free-text categories and
+ * channels can never produce colliding IDs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "feedback_rollups")
+public class FeedbackRollup {
+    @Id
+    private Key id;
+
+    // yyyy-MM-dd in the server's time zone
+    private String day;
+    private String category;
+    private String channel;
+
+    // All feedback, with or without a rating
+    private Long count;
+
+    @Field("rating_count")
+    private Long ratingCount;
+
+    @Field("rating_sum")
+    private Long ratingSum;
+
+    // rating -> number of feedback records with that rating
+    private Map<String, Long> ratings;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    // Always written in this field order, which is part of _id equality in Mongo
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key {
+        private String day;
+        private String category;
+        private String channel;
+    }
+}
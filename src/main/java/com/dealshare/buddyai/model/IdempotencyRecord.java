@@ -0,0 +1,46 @@
+package com.dealshare.buddyai.model;
+
+import com.dealshare.buddyai.dto.PlaceOrderResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    // "<user_id>:<Idempotency-Key>"
+    @Id
+    private String id;
+
+    @Field("request_hash")
+    private String requestHash;
+
+    private String status;
+
+    private PlaceOrderResponseDTO response;
+
+    // Identifies the request holding an IN_PROGRESS claim, so a stale owner cannot overwrite a takeover
+    @Field("claim_token")
+    private String claimToken;
+
+    @Field("claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("completed_at")
+    private LocalDateTime completedAt;
+}
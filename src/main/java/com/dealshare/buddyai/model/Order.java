@@ -1,5 +1,6 @@
 package com.dealshare.buddyai.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -48,4 +49,17 @@ public class Order {
 
     @Field("updated_at")
     private LocalDateTime updatedAt;
+
+    // Events not yet relayed; see OutboxRelay
+    @JsonIgnore
+    private List<OutboxEvent> outbox;
+
+    @JsonIgnore
+    @Field("outbox_pending")
+    private Boolean outboxPending;
+
+    // Creation time of the oldest pending event, so the relay can read documents oldest first
+    @JsonIgnore
+    @Field("outbox_since")
+    private LocalDateTime outboxSince;
 }
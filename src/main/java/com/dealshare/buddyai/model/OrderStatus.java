@@ -0,0 +1,42 @@
+package com.dealshare.buddyai.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Statuses an order can be moved to. Orders store the label (e.g. "Out for Delivery"),
+ * which is also used as a key in order_summaries.status_counts.
+ */
+public enum OrderStatus {
+    ORDERED("Ordered"),
+    CONFIRMED("Confirmed"),
+    PACKED("Packed"),
+    SHIPPED("Shipped"),
+    OUT_FOR_DELIVERY("Out for Delivery"),
+    DELIVERED("Delivered"),
+    CANCELLED("Cancelled"),
+    RETURNED("Returned");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Match a label or constant name, ignoring case ("shipped", "OUT_FOR_DELIVERY", "Out for delivery")
+     */
+    public static Optional<OrderStatus> from(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String text = value.trim();
+        return Arrays.stream(values())
+                .filter(status -> status.label.equalsIgnoreCase(text) || status.name().equalsIgnoreCase(text))
+                .findFirst();
+    }
+}
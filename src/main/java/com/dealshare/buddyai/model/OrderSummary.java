@@ -0,0 +1,86 @@
+package com.dealshare.buddyai.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user read model of order history, maintained by OrderSummaryService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "order_summaries")
+public class OrderSummary {
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private Integer userId;
+
+    @Field("total_orders")
+    private Integer totalOrders;
+
+    @Field("total_spent")
+    private Double totalSpent;
+
+    // Newest first, capped at app.orders.summary.recent-orders
+    @Field("recent_orders")
+    private List<RecentOrder> recentOrders;
+
+    // status -> number of orders currently in that status
+    @Field("status_counts")
+    private Map<String, Integer> statusCounts;
+
+    // product_id -> units bought
+    @Field("product_counts")
+    private Map<String, Integer> productCounts;
+
+    @Field("last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RecentOrder {
+        @Field("order_id")
+        private Integer orderId;
+
+        private String status;
+
+        @Field("total_amount")
+        private Double totalAmount;
+
+        @Field("order_date")
+        private LocalDateTime orderDate;
+
+        private List<RecentOrderItem> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RecentOrderItem {
+        @Field("product_id")
+        private Integer productId;
+
+        @Field("product_name")
+        private String productName;
+
+        private Integer quantity;
+    }
+}
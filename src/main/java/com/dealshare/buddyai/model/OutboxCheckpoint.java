@@ -0,0 +1,42 @@
+package com.dealshare.buddyai.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Relay progress per sink: the last batch published, so a batch that reached the
+ * sink but was not yet removed from the outbox is not published twice
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "outbox_checkpoints")
+public class OutboxCheckpoint {
+    // Sink name
+    @Id
+    private String id;
+
+    @Field("last_event_id")
+    private String lastEventId;
+
+    @Field("last_created_at")
+    private LocalDateTime lastCreatedAt;
+
+    @Field("last_batch_ids")
+    private List<String> lastBatchIds;
+
+    @Field("relayed_total")
+    private Long relayedTotal;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.dealshare.buddyai.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Domain event embedded in the document it describes (orders, feedback) and
+ * written in the same single-document operation; relayed by OutboxRelay
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Field("event_id")
+    private String eventId;
+
+    private String type;
+
+    @Field("aggregate_id")
+    private Integer aggregateId;
+
+    private Map<String, Object> payload;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+}
@@ -56,6 +56,10 @@ public class Product {
     @Field("is_popular")
     private Boolean isPopular;
     
+    // Hash of the seeded catalog fields; lets re-seeding skip unchanged documents
+    @Field("content_hash")
+    private String contentHash;
+    
     @Field("created_at")
     private LocalDateTime createdAt;
     
@@ -1,15 +1,27 @@
 package com.dealshare.buddyai.repository;
 
 import com.dealshare.buddyai.model.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FeedbackRepository extends MongoRepository<Feedback, String> {
-    List<Feedback> findByUserIdOrderByCreatedAtDesc(Integer userId);
-    List<Feedback> findByOrderIdOrderByCreatedAtDesc(Integer orderId);
+    // Keyset pages, newest first: pass a Pageable sorted by created_at desc, feedback_id desc
+    List<Feedback> findByUserId(Integer userId, Pageable pageable);
+    List<Feedback> findByOrderId(Integer orderId, Pageable pageable);
+
+    @Query("{ 'user_id': ?0, $or: [ { 'created_at': { $lt: ?1 } }, { 'created_at': ?1, 'feedback_id': { $lt: ?2 } } ] }")
+    List<Feedback> findByUserIdBefore(Integer userId, LocalDateTime createdAt, Integer feedbackId, Pageable pageable);
+
+    @Query("{ 'order_id': ?0, $or: [ { 'created_at': { $lt: ?1 } }, { 'created_at': ?1, 'feedback_id': { $lt: ?2 } } ] }")
+    List<Feedback> findByOrderIdBefore(Integer orderId, LocalDateTime createdAt, Integer feedbackId, Pageable pageable);
+
+    boolean existsByFeedbackId(Integer feedbackId);
 }
 
 
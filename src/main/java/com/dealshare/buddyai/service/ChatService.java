@@ -2,7 +2,8 @@ package com.dealshare.buddyai.service;
 
 import com.dealshare.buddyai.dto.ChatRequestDTO;
 import com.dealshare.buddyai.dto.ChatResponseDTO;
-import com.dealshare.buddyai.dto.ProductDetailsDTO;
+import com.dealshare.buddyai.dto.OrderStatusEventDTO;
+import com.dealshare.buddyai.dto.ProductTileDTO;
 import com.dealshare.buddyai.service.ProductService;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
@@ -17,7 +18,9 @@ import retrofit2.HttpException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
@@ -44,6 +47,11 @@ public class ChatService {
     @Value("${app.ai-assistant-name:Buddy AI}")
     private String assistantName;
 
+    // A whole message that only asks where an order is, e.g. "where is my order?", "track order #10023"
+    private static final Pattern TRACKING_REQUEST = Pattern.compile(
+            "(please\\s+)?(track( my)? order|where is my order|(what is the )?status of my order|order status)"
+                    + "(\\s*#?\\d+)?\\s*[?.!]*");
+
     // In-memory conversation storage (use Redis in production)
     private final Map<String, List<ChatMessage>> conversations = new ConcurrentHashMap<>();
     private final Map<String, Map<String, Object>> conversationContext = new ConcurrentHashMap<>();
@@ -51,13 +59,26 @@ public class ChatService {
     
     // Product service for searching products
     private final ProductService productService;
+    private final SequenceService sequenceService;
+    private final OrderContextService orderContextService;
+    private final OrderEventService orderEventService;
+
+    @Value("${app.conversation.order-context-timeout-ms:2000}")
+    private Long orderContextTimeoutMs;
 
     public ChatResponseDTO chat(ChatRequestDTO request) {
+        return chat(request, null);
+    }
+
+    /**
+     * @param quickReply the quick reply type that produced this message, or null for typed messages
+     */
+    private ChatResponseDTO chat(ChatRequestDTO request, String quickReply) {
         try {
             // Generate or use existing conversation ID
             String conversationId = request.getConversation_id();
             if (conversationId == null || conversationId.isEmpty()) {
-                conversationId = "conv_" + System.currentTimeMillis();
+                conversationId = "conv_" + sequenceService.next("conversations", () -> 0L);
             }
 
             // Initialize conversation if new
@@ -71,6 +92,10 @@ public class ChatService {
             if (request.getOrder_info() != null) {
                 conversationMetadata.get(conversationId).put("order_info", request.getOrder_info());
             }
+            Integer orderId = orderContextService.resolveOrderId(request.getOrder_id(), request.getOrder_info());
+            if (orderId != null) {
+                conversationMetadata.get(conversationId).put("order_id", orderId);
+            }
             if (request.getIs_general_issue() != null) {
                 conversationMetadata.get(conversationId).put("is_general_issue", request.getIs_general_issue());
             }
@@ -78,6 +103,19 @@ public class ChatService {
                 conversationMetadata.get(conversationId).put("is_issue_reporting", request.getIs_issue_reporting());
             }
 
+            // "Where is my order" is answered from the latest order event, without an LLM call
+            Map<String, Object> metadata = conversationMetadata.get(conversationId);
+            Integer trackedOrderId = (Integer) metadata.get("order_id");
+            if (trackedOrderId != null && isTrackingRequest(metadata, request.getMessage(), quickReply)) {
+                Optional<OrderStatusEventDTO> status = orderEventService.latest(trackedOrderId);
+                if (status.isPresent()) {
+                    return trackingResponse(conversationId, request.getMessage(), status.get());
+                }
+            }
+
+            // Resolve the order (cached per conversation) while the prompt is assembled
+            CompletableFuture<String> orderContext = orderContextService.contextFor(conversationId, orderId);
+
             // Add user message to conversation
             ChatMessage userMessage = new ChatMessage(ChatMessageRole.USER.value(), request.getMessage());
             conversations.get(conversationId).add(userMessage);
@@ -88,12 +126,13 @@ public class ChatService {
                 ? conversationHistory.subList(conversationHistory.size() - 10, conversationHistory.size())
                 : conversationHistory;
 
-            // Build system prompt
-            String systemPrompt = buildSystemPrompt(request);
+            // Build the order-independent part of the system prompt first, then wait for the order
+            StringBuilder systemPrompt = buildBasePrompt();
+            appendRequestContext(systemPrompt, request, awaitOrderContext(orderContext, conversationId));
 
             // Prepare messages for OpenAI
             List<ChatMessage> messages = new ArrayList<>();
-            messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt));
+            messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt.toString()));
             messages.addAll(recentMessages);
 
             // Validate API key
@@ -207,14 +246,13 @@ public class ChatService {
             log.info("OpenAI API response received: {}", aiResponse.substring(0, Math.min(100, aiResponse.length())));
 
             // Search for products if user mentioned product names
-            List<Map<String, Object>> products = searchProductsFromMessage(request.getMessage(), userMessage.getContent());
+            List<ProductTileDTO> products = searchProductsFromMessage(request.getMessage(), userMessage.getContent());
             
             // If products are found, modify the AI response to be product-centric
             if (products != null && !products.isEmpty()) {
                 StringBuilder productNames = new StringBuilder();
                 for (int i = 0; i < Math.min(products.size(), 5); i++) {
-                    Map<String, Object> product = products.get(i);
-                    String productName = (String) product.get("product_name");
+                    String productName = products.get(i).getProduct_name();
                     if (productName != null && !productName.isEmpty()) {
                         if (productNames.length() > 0) {
                             productNames.append(", ");
@@ -317,7 +355,64 @@ public class ChatService {
         }
     }
 
-    private String buildSystemPrompt(ChatRequestDTO request) {
+    /**
+     * Only the "track" quick reply or a message that is nothing but a tracking question gets the
+     * canned status answer; issue reports that mention tracking or order status go to the assistant
+     */
+    private boolean isTrackingRequest(Map<String, Object> metadata, String message, String quickReply) {
+        if (Boolean.TRUE.equals(metadata.get("is_issue_reporting")) || Boolean.TRUE.equals(metadata.get("is_general_issue"))) {
+            return false;
+        }
+        if ("track".equals(quickReply)) {
+            return true;
+        }
+        return message != null && TRACKING_REQUEST.matcher(message.trim().toLowerCase()).matches();
+    }
+
+    private ChatResponseDTO trackingResponse(String conversationId, String message, OrderStatusEventDTO status) {
+        StringBuilder reply = new StringBuilder("Your order #").append(status.getOrder_id())
+                .append(" is currently '").append(status.getStatus()).append("'");
+        if (status.getChanged_at() != null) {
+            reply.append(" (updated ").append(status.getChanged_at().format(DateTimeFormatter.ofPattern("dd MMM, hh:mm a"))).append(")");
+        }
+        reply.append(". I'll keep an eye on it - is there anything else I can help you with?");
+
+        conversations.get(conversationId).add(new ChatMessage(ChatMessageRole.USER.value(), message));
+        conversations.get(conversationId).add(new ChatMessage(ChatMessageRole.ASSISTANT.value(), reply.toString()));
+
+        Map<String, Object> orderData = new HashMap<>();
+        orderData.put("order_id", status.getOrder_id());
+        orderData.put("status", status.getStatus());
+        orderData.put("changed_at", status.getChanged_at());
+
+        return ChatResponseDTO.builder()
+                .response(reply.toString())
+                .conversation_id(conversationId)
+                .suggested_questions(Collections.emptyList())
+                .timestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .needs_more_info(false)
+                .questions_to_ask(Collections.emptyList())
+                .collected_data(conversationContext.get(conversationId))
+                .intent("track")
+                .order_data(orderData)
+                .show_feedback_modal(false)
+                .products(Collections.emptyList())
+                .build();
+    }
+
+    private String awaitOrderContext(CompletableFuture<String> orderContext, String conversationId) {
+        try {
+            return orderContext.get(orderContextTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("Order context unavailable for {}: {}", conversationId, e.getMessage());
+            return null;
+        }
+    }
+
+    private StringBuilder buildBasePrompt() {
         StringBuilder prompt = new StringBuilder();
         
         prompt.append("You are ").append(assistantName).append(", a friendly and conversational AI assistant for ").append(companyName).append(".\n\n");
@@ -336,17 +431,21 @@ public class ChatService {
         prompt.append("- Use simple, clear language\n");
         prompt.append("- Be empathetic and understanding\n");
         prompt.append("- Common support areas: account management, payment/wallet issues, offers/coupons, product availability, delivery options\n");
-        
+        return prompt;
+    }
+
+    private void appendRequestContext(StringBuilder prompt, ChatRequestDTO request, String orderSummary) {
         // Add order context if available
-        if (request.getOrder_info() != null && !request.getOrder_info().isEmpty()) {
+        if (orderSummary != null) {
+            prompt.append("\nCustomer's order: ").append(orderSummary)
+                    .append("\nUse these details directly; do not ask the customer for them again.\n");
+        } else if (request.getOrder_info() != null && !request.getOrder_info().isEmpty()) {
             prompt.append("\nCustomer has an order context available. Reference it when relevant.\n");
         }
         
         if (request.getIs_general_issue() != null && request.getIs_general_issue()) {
             prompt.append("\nThis is a general support inquiry. Help the user with their questions.\n");
         }
-        
-        return prompt.toString();
     }
 
     public ChatResponseDTO quickReply(String conversationId, String questionType) {
@@ -371,12 +470,13 @@ public class ChatService {
         ChatRequestDTO request = ChatRequestDTO.builder()
                 .conversation_id(conversationId)
                 .message(message)
+                .order_id((Integer) metadata.get("order_id"))
                 .order_info((Map<String, Object>) metadata.get("order_info"))
                 .is_general_issue((Boolean) metadata.getOrDefault("is_general_issue", false))
                 .is_issue_reporting((Boolean) metadata.getOrDefault("is_issue_reporting", false))
                 .build();
         
-        return chat(request);
+        return chat(request, questionType);
     }
 
     public Map<String, Object> getConversation(String conversationId) {
@@ -391,12 +491,13 @@ public class ChatService {
         conversations.remove(conversationId);
         conversationContext.remove(conversationId);
         conversationMetadata.remove(conversationId);
+        orderContextService.evict(conversationId);
     }
     
     /**
      * Extract product names from user message and search for matching products
      */
-    private List<Map<String, Object>> searchProductsFromMessage(String userMessage, String fullMessage) {
+    private List<ProductTileDTO> searchProductsFromMessage(String userMessage, String fullMessage) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             return Collections.emptyList();
         }
@@ -457,37 +558,17 @@ public class ChatService {
                 }
             }
             
-            // Search for products using the extracted terms
-            List<Map<String, Object>> foundProducts = new ArrayList<>();
+            // Search for products using the extracted terms, de-duplicated by product_id
+            Map<Integer, ProductTileDTO> foundProducts = new LinkedHashMap<>();
             for (String term : searchTerms) {
                 if (term.length() < 2) continue;
                 
                 log.info("Searching for products with keyword: {}", term);
-                var searchResult = productService.searchProducts(term, null, null, null);
+                var searchResult = productService.searchProducts(term, null, null, null, null, 10);
                 
                 if (searchResult.isSuccess() && searchResult.getData() != null) {
-                    for (ProductDetailsDTO product : searchResult.getData()) {
-                        // Convert to map for JSON response
-                        Map<String, Object> productMap = new HashMap<>();
-                        productMap.put("product_id", product.getProduct_id());
-                        productMap.put("product_name", product.getProduct_name());
-                        productMap.put("brand", product.getBrand());
-                        productMap.put("category", product.getCategory());
-                        productMap.put("price", product.getPrice());
-                        productMap.put("discounted_price", product.getDiscounted_price());
-                        productMap.put("image_url", product.getImage_url());
-                        productMap.put("rating", product.getRating());
-                        productMap.put("available_stock", product.getAvailable_stock());
-                        productMap.put("sku_code", product.getSku_code());
-                        productMap.put("description", product.getDescription());
-                        productMap.put("is_popular", product.getIs_popular());
-                        
-                        // Avoid duplicates
-                        boolean alreadyAdded = foundProducts.stream()
-                            .anyMatch(p -> p.get("product_id").equals(product.getProduct_id()));
-                        if (!alreadyAdded) {
-                            foundProducts.add(productMap);
-                        }
+                    for (ProductTileDTO product : searchResult.getData().getItems()) {
+                        foundProducts.putIfAbsent(product.getProduct_id(), product);
                     }
                 }
                 
@@ -498,7 +579,7 @@ public class ChatService {
             }
             
             log.info("Found {} products for message: {}", foundProducts.size(), userMessage);
-            return foundProducts;
+            return new ArrayList<>(foundProducts.values());
             
         } catch (Exception e) {
             log.error("Error searching products from message: {}", e.getMessage(), e);
@@ -0,0 +1,159 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.event.OrderStatusChangedEvent;
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * In-memory answers to "does this user exist" and "who owns this order", used to
+ * validate feedback without loading User and Order documents.
+ *
+ * Known user IDs and orderId -> userId are held in bounded {@link IntIdMap}s,
+ * warmed at startup from projection scans of users and orders on the task
+ * executor and kept current from order placement events. Only positive answers
+ * are cached: a miss (an unknown ID, a map that is full or still warming) falls
+ * back to an indexed projection query, so the cache can never reject a valid ID.
+ *
+ * Metrics: existence.cache{type=user|order, result=hit|miss} and
+ * existence.cache.size{type}.
+ */
+@Slf4j
+@Service
+public class ExistenceCache {
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final IntIdMap users;
+    private final IntIdMap orderOwners;
+    private final Counter userHits;
+    private final Counter userMisses;
+    private final Counter orderHits;
+    private final Counter orderMisses;
+
+    public ExistenceCache(MongoTemplate mongoTemplate,
+                          @Qualifier("applicationTaskExecutor") Executor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.existence-cache.max-users:500000}") int maxUsers,
+                          @Value("${app.existence-cache.max-orders:1000000}") int maxOrders) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.users = new IntIdMap(maxUsers);
+        this.orderOwners = new IntIdMap(maxOrders);
+        this.userHits = meterRegistry.counter("existence.cache", "type", "user", "result", "hit");
+        this.userMisses = meterRegistry.counter("existence.cache", "type", "user", "result", "miss");
+        this.orderHits = meterRegistry.counter("existence.cache", "type", "order", "result", "hit");
+        this.orderMisses = meterRegistry.counter("existence.cache", "type", "order", "result", "miss");
+        meterRegistry.gauge("existence.cache.size", Tags.of("type", "user"), users, IntIdMap::size);
+        meterRegistry.gauge("existence.cache.size", Tags.of("type", "order"), orderOwners, IntIdMap::size);
+    }
+
+    public boolean userExists(Integer userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (users.contains(userId)) {
+            userHits.increment();
+            return true;
+        }
+        userMisses.increment();
+        boolean exists = mongoTemplate.exists(Query.query(Criteria.where("user_id").is(userId)), User.class);
+        if (exists) {
+            users.put(userId, 0);
+        }
+        return exists;
+    }
+
+    /**
+     * User ID that placed the order, or null if the order does not exist
+     */
+    public Integer orderOwner(Integer orderId) {
+        if (orderId == null) {
+            return null;
+        }
+        int owner = orderOwners.get(orderId);
+        if (owner != IntIdMap.MISSING) {
+            orderHits.increment();
+            return owner;
+        }
+        orderMisses.increment();
+        Query query = Query.query(Criteria.where("order_id").is(orderId));
+        query.fields().include("order_id", "user_id");
+        Order order = mongoTemplate.findOne(query, Order.class);
+        if (order == null) {
+            return null;
+        }
+        orderOwners.put(orderId, order.getUserId());
+        return order.getUserId();
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null) {
+            orderOwners.put(event.getOrderId(), event.getUserId());
+            users.put(event.getUserId(), 0);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(this::warm);
+    }
+
+    private void warm() {
+        try {
+            long started = System.currentTimeMillis();
+            int userCount = scan("users", "user_id", null, users);
+            int orderCount = scan("orders", "order_id", "user_id", orderOwners);
+            log.info("Warmed existence cache with {} users and {} orders in {}ms",
+                    userCount, orderCount, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Could not warm existence cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stream just the ID fields of a collection into a map until it is full
+     */
+    private int scan(String collection, String keyField, String valueField, IntIdMap target) {
+        Query query = new Query();
+        query.fields().include(keyField).exclude("_id");
+        if (valueField != null) {
+            query.fields().include(valueField);
+        }
+        int added = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+            var iterator = documents.iterator();
+            while (iterator.hasNext() && !target.isFull()) {
+                Document document = iterator.next();
+                if (document.get(keyField) instanceof Number key
+                        && (valueField == null || document.get(valueField) instanceof Number)) {
+                    int value = valueField == null ? 0 : ((Number) document.get(valueField)).intValue();
+                    if (target.put(key.intValue(), value)) {
+                        added++;
+                    }
+                }
+            }
+        }
+        if (target.isFull()) {
+            log.warn("Existence cache for {} is full at {} entries; further IDs are checked in Mongo",
+                    collection, target.size());
+        }
+        return added;
+    }
+}
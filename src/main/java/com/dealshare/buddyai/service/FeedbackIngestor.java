@@ -0,0 +1,320 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Feedback;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous feedback ingestion, enabled with app.feedback.ingest.enabled.
+ *
+ * Accepted feedback waits in a bounded queue; a single writer thread collects up
+ * to batch-size records (or whatever arrived within window-ms) and writes them
+ * with one unordered insert. When the queue is full new feedback is rejected
+ * rather than buffered, so callers can back off.
+ *
+ * A failed insert is retried up to max-attempts times with doubling backoff (duplicate
+ * key errors on a retry mean an earlier attempt already wrote the record). Records
+ * that still cannot be written, including those left at shutdown, are appended to
+ * spill-path as extended JSON and replayed by the writer on the next start; they
+ * only count as dropped if the spill file cannot be written either.
+ *
+ * Metrics: feedback.ingest{result=accepted|rejected|written|spilled|dropped},
+ * feedback.ingest.batch_size and feedback.ingest.queue_depth.
+ */
+@Slf4j
+@Service
+public class FeedbackIngestor {
+
+    // Code of a duplicate key write error
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final FeedbackStatsService feedbackStatsService;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final Path spillPath;
+    private final BlockingQueue<Feedback> queue;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter dropped;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException() {
+            super("Feedback queue is full, please retry shortly");
+        }
+    }
+
+    public FeedbackIngestor(MongoTemplate mongoTemplate,
+                            FeedbackStatsService feedbackStatsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.feedback.ingest.enabled:false}") boolean enabled,
+                            @Value("${app.feedback.ingest.window-ms:50}") long windowMs,
+                            @Value("${app.feedback.ingest.batch-size:200}") int batchSize,
+                            @Value("${app.feedback.ingest.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.feedback.ingest.max-attempts:3}") int maxAttempts,
+                            @Value("${app.feedback.ingest.retry-backoff-ms:200}") long retryBackoffMs,
+                            @Value("${app.feedback.ingest.spill-path:data/feedback-spill.ndjson}") String spillPath) {
+        this.mongoTemplate = mongoTemplate;
+        this.feedbackStatsService = feedbackStatsService;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.spillPath = Path.of(spillPath);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.accepted = meterRegistry.counter("feedback.ingest", "result", "accepted");
+        this.rejected = meterRegistry.counter("feedback.ingest", "result", "rejected");
+        this.written = meterRegistry.counter("feedback.ingest", "result", "written");
+        this.spilled = meterRegistry.counter("feedback.ingest", "result", "spilled");
+        this.dropped = meterRegistry.counter("feedback.ingest", "result", "dropped");
+        this.batchSizes = DistributionSummary.builder("feedback.ingest.batch_size")
+                .description("Feedback records written per batched insert")
+                .register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("feedback.ingest.queue_depth", List.of(), queue);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "feedback-ingest");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Async feedback ingestion enabled: window {}ms, batch size {}", windowMs, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Write whatever is still queued before shutting down
+        List<Feedback> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (int i = 0; i < left.size(); i += batchSize) {
+            write(left.subList(i, Math.min(i + batchSize, left.size())));
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queue validated feedback for the next batch
+     *
+     * @throws QueueFullException if the queue is at capacity
+     */
+    public void submit(Feedback feedback) {
+        if (!queue.offer(feedback)) {
+            rejected.increment();
+            throw new QueueFullException();
+        }
+        accepted.increment();
+    }
+
+    private void run() {
+        replaySpill();
+        List<Feedback> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Feedback first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Feedback next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: write what was collected, stop() handles the rest
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Feedback> batch) {
+        write(batch, false);
+    }
+
+    /**
+     * @param replay the records come from the spill file and may already have been inserted
+     */
+    private void write(List<Feedback> batch, boolean replay) {
+        batchSizes.record(batch.size());
+        List<Feedback> stored = new ArrayList<>(batch.size());
+        List<Feedback> unwritten = List.of();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Feedback.class)
+                        .insert(batch)
+                        .execute();
+                stored.addAll(batch);
+                break;
+            } catch (BulkOperationException e) {
+                // Unordered: every insert without an error was written
+                Map<Integer, BulkWriteError> errors = new HashMap<>();
+                e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+                unwritten = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    BulkWriteError error = errors.get(i);
+                    if (error == null || ((replay || attempt > 1) && error.getCode() == DUPLICATE_KEY)) {
+                        stored.add(batch.get(i));
+                    } else {
+                        log.error("Could not insert feedback {}: {}", batch.get(i).getFeedbackId(), error.getMessage());
+                        unwritten.add(batch.get(i));
+                    }
+                }
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    log.error("Batched insert of {} feedback records failed after {} attempts: {}",
+                            batch.size(), attempt, e.getMessage());
+                    unwritten = batch;
+                    break;
+                }
+                log.warn("Batched insert of {} feedback records failed (attempt {}), retrying: {}",
+                        batch.size(), attempt, e.getMessage());
+            }
+        }
+        if (!unwritten.isEmpty()) {
+            spill(unwritten);
+        }
+        if (!stored.isEmpty()) {
+            written.increment(stored.size());
+            feedbackStatsService.record(stored);
+        }
+    }
+
+    /**
+     * Sleep before the next attempt; false if interrupted (shutting down), so the batch is spilled now
+     */
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs << Math.min(attempt - 1, 10));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Append records that could not be inserted to the spill file, in the same form Mongo stores them
+     */
+    private synchronized void spill(List<Feedback> records) {
+        StringBuilder lines = new StringBuilder(records.size() * 512);
+        for (Feedback feedback : records) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(feedback, document);
+            lines.append(document.toJson()).append('\n');
+        }
+        try {
+            Path parent = spillPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(spillPath, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            spilled.increment(records.size());
+            log.warn("Spilled {} feedback records to {}", records.size(), spillPath.toAbsolutePath());
+        } catch (IOException e) {
+            dropped.increment(records.size());
+            log.error("Dropped {} feedback records, could not spill them to {}: {}",
+                    records.size(), spillPath.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Insert records spilled by an earlier run; any that fail again are spilled anew. A replay
+     * file left by an interrupted replay is finished first.
+     */
+    private void replaySpill() {
+        Path replaying = spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+        try {
+            if (Files.exists(replaying)) {
+                replay(replaying);
+            }
+            if (Files.exists(spillPath)) {
+                Files.move(spillPath, replaying);
+                replay(replaying);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not replay spilled feedback from {}: {}", replaying.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    private void replay(Path file) throws IOException {
+        List<Feedback> batch = new ArrayList<>(batchSize);
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(mongoTemplate.getConverter().read(Feedback.class, Document.parse(line)));
+                if (batch.size() == batchSize) {
+                    write(batch, true);
+                    replayed += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, true);
+            replayed += batch.size();
+        }
+        Files.delete(file);
+        log.info("Replayed {} spilled feedback records", replayed);
+    }
+}
@@ -1,19 +1,24 @@
 package com.dealshare.buddyai.service;
 
+import com.dealshare.buddyai.dto.CursorPageDTO;
 import com.dealshare.buddyai.dto.FeedbackRequestDTO;
+import com.dealshare.buddyai.dto.FeedbackStatsDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.model.Feedback;
-import com.dealshare.buddyai.model.User;
+import com.dealshare.buddyai.model.OutboxEvent;
 import com.dealshare.buddyai.repository.FeedbackRepository;
-import com.dealshare.buddyai.repository.OrderRepository;
-import com.dealshare.buddyai.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -21,47 +26,34 @@ import java.util.Optional;
 public class FeedbackService {
 
     private final FeedbackRepository feedbackRepository;
-    private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private final ExistenceCache existenceCache;
+    private final SequenceService sequenceService;
+    private final OutboxService outboxService;
+    private final FeedbackIngestor feedbackIngestor;
+    private final FeedbackStatsService feedbackStatsService;
+
+    // A fresh range from 1. Legacy IDs were currentTimeMillis % Integer.MAX_VALUE, scattered over the
+    // whole int range, so the old "feedback" counter (seeded from their max) had no room left
+    private static final String FEEDBACK_SEQUENCE = "feedback_ids";
+
+    // created_at has millisecond precision; feedback_id orders feedback written in the same millisecond
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "feedbackId");
+
+    @Value("${app.feedback.page-size:20}")
+    private Integer defaultPageSize;
+
+    @Value("${app.feedback.max-page-size:100}")
+    private Integer maxPageSize;
 
     public ResponseDTO<Feedback> submitFeedback(FeedbackRequestDTO request) {
         try {
-            // Validate user exists
-            Optional<User> userOpt = userRepository.findByUserId(request.getUser_id());
-            if (userOpt.isEmpty()) {
-                return new ResponseDTO<>(false, "User not found", null);
-            }
-
-            // Validate order if provided
-            if (request.getOrder_id() != null) {
-                var orderOpt = orderRepository.findByOrderId(request.getOrder_id());
-                if (orderOpt.isEmpty()) {
-                    return new ResponseDTO<>(false, "Order not found", null);
-                }
-                var order = orderOpt.get();
-                if (order.getUserId() != request.getUser_id()) {
-                    return new ResponseDTO<>(false, "Order does not belong to the specified user", null);
-                }
+            String invalid = validate(request);
+            if (invalid != null) {
+                return new ResponseDTO<>(false, invalid, null);
             }
 
-            // Generate feedback ID
-            int feedbackId = (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
-
-            Feedback feedback = Feedback.builder()
-                    .feedbackId(feedbackId)
-                    .userId(request.getUser_id())
-                    .orderId(request.getOrder_id())
-                    .category(request.getCategory())
-                    .subject(request.getSubject())
-                    .rating(request.getRating())
-                    .comments(request.getComments())
-                    .channel(request.getChannel() != null ? request.getChannel() : "web")
-                    .allowContact(request.getAllow_contact() != null ? request.getAllow_contact() : false)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
-            Feedback saved = feedbackRepository.save(feedback);
+            Feedback saved = feedbackRepository.save(buildFeedback(request));
+            feedbackStatsService.record(List.of(saved));
             return new ResponseDTO<>(true, "Feedback submitted successfully", saved);
         } catch (Exception e) {
             log.error("Error submitting feedback", e);
@@ -69,35 +61,160 @@ public class FeedbackService {
         }
     }
 
-    public ResponseDTO<List<Feedback>> getFeedbackByUser(Integer userId, Integer limit) {
+    /**
+     * Validate feedback and queue it for a batched insert.
+     * The returned feedback already has its ID but may not be persisted yet.
+     *
+     * @throws FeedbackIngestor.QueueFullException if the ingestion queue is full
+     */
+    public ResponseDTO<Feedback> acceptFeedback(FeedbackRequestDTO request) {
         try {
-            List<Feedback> feedbacks = feedbackRepository.findByUserIdOrderByCreatedAtDesc(userId);
-            if (limit != null && limit > 0) {
-                feedbacks = feedbacks.stream().limit(limit).toList();
+            String invalid = validate(request);
+            if (invalid != null) {
+                return new ResponseDTO<>(false, invalid, null);
             }
-            return new ResponseDTO<>(true, "Retrieved " + feedbacks.size() + " feedback record(s)", feedbacks);
+
+            Feedback feedback = buildFeedback(request);
+            feedbackIngestor.submit(feedback);
+            return new ResponseDTO<>(true, "Feedback accepted", feedback);
+        } catch (FeedbackIngestor.QueueFullException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error accepting feedback", e);
+            return new ResponseDTO<>(false, "Failed to submit feedback: " + e.getMessage(), null);
+        }
+    }
+
+    public boolean isAsyncIngestion() {
+        return feedbackIngestor.isEnabled();
+    }
+
+    /**
+     * Next ID from the feedback sequence, stepping over any a legacy record already holds.
+     * Checked here rather than on insert because the ingestor reads a duplicate key on
+     * retry as "already written"; each check is one lookup on feedback_id_unique.
+     */
+    private int nextFeedbackId() {
+        while (true) {
+            int feedbackId = sequenceService.nextInt(FEEDBACK_SEQUENCE, () -> 0L);
+            if (!feedbackRepository.existsByFeedbackId(feedbackId)) {
+                return feedbackId;
+            }
+            log.debug("Skipping feedback ID {}, held by a legacy record", feedbackId);
+        }
+    }
+
+    private Feedback buildFeedback(FeedbackRequestDTO request) {
+        // Generate feedback ID from the shared counter
+        int feedbackId = nextFeedbackId();
+
+        Feedback feedback = Feedback.builder()
+                .feedbackId(feedbackId)
+                .userId(request.getUser_id())
+                .orderId(request.getOrder_id())
+                .category(request.getCategory())
+                .subject(request.getSubject())
+                .rating(request.getRating())
+                .comments(request.getComments())
+                .channel(request.getChannel() != null ? request.getChannel() : "web")
+                .allowContact(request.getAllow_contact() != null ? request.getAllow_contact() : false)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // Stored on the feedback document so the event is written atomically with it
+        OutboxEvent submitted = outboxService.feedbackSubmitted(feedback);
+        if (submitted != null) {
+            feedback.setOutbox(List.of(submitted));
+            feedback.setOutboxPending(true);
+            feedback.setOutboxSince(submitted.getCreatedAt());
+        }
+        return feedback;
+    }
+
+    /**
+     * Error message if the user does not exist or the order is unknown or someone else's, otherwise null
+     */
+    private String validate(FeedbackRequestDTO request) {
+        if (!existenceCache.userExists(request.getUser_id())) {
+            return "User not found";
+        }
+        if (request.getOrder_id() != null) {
+            Integer owner = existenceCache.orderOwner(request.getOrder_id());
+            if (owner == null) {
+                return "Order not found";
+            }
+            if (!owner.equals(request.getUser_id())) {
+                return "Order does not belong to the specified user";
+            }
+        }
+        return null;
+    }
+
+    public ResponseDTO<CursorPageDTO<Feedback>> getFeedbackByUser(Integer userId, String after, Integer limit) {
+        try {
+            CursorPageDTO<Feedback> page = findPage(after, limit,
+                    pageable -> feedbackRepository.findByUserId(userId, pageable),
+                    (cursor, pageable) -> feedbackRepository.findByUserIdBefore(userId, cursor.time(), cursor.id(), pageable));
+            return new ResponseDTO<>(true, "Retrieved " + page.getItems().size() + " feedback record(s)", page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseDTO<>(false, e.getMessage(), null);
         } catch (Exception e) {
             log.error("Error fetching user feedback", e);
             return new ResponseDTO<>(false, "Failed to fetch feedback: " + e.getMessage(), null);
         }
     }
 
-    public ResponseDTO<List<Feedback>> getFeedbackByOrder(Integer orderId, Integer limit) {
+    public ResponseDTO<CursorPageDTO<Feedback>> getFeedbackByOrder(Integer orderId, String after, Integer limit) {
         try {
-            List<Feedback> feedbacks = feedbackRepository.findByOrderIdOrderByCreatedAtDesc(orderId);
-            if (limit != null && limit > 0) {
-                feedbacks = feedbacks.stream().limit(limit).toList();
-            }
-            return new ResponseDTO<>(true, "Retrieved " + feedbacks.size() + " feedback record(s) for order " + orderId, feedbacks);
+            CursorPageDTO<Feedback> page = findPage(after, limit,
+                    pageable -> feedbackRepository.findByOrderId(orderId, pageable),
+                    (cursor, pageable) -> feedbackRepository.findByOrderIdBefore(orderId, cursor.time(), cursor.id(), pageable));
+            return new ResponseDTO<>(true, "Retrieved " + page.getItems().size() + " feedback record(s) for order " + orderId, page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseDTO<>(false, e.getMessage(), null);
         } catch (Exception e) {
             log.error("Error fetching order feedback", e);
             return new ResponseDTO<>(false, "Failed to fetch feedback: " + e.getMessage(), null);
         }
     }
-}
-
-
-
 
+    /**
+     * One page newest first; reads limit + 1 rows to detect a next page, nothing more
+     */
+    private CursorPageDTO<Feedback> findPage(String after, Integer limit,
+                                             Function<Pageable, List<Feedback>> first,
+                                             BiFunction<TimeIdCursor, Pageable, List<Feedback>> next) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        Pageable pageable = PageRequest.of(0, pageSize + 1, PAGE_SORT);
+
+        List<Feedback> feedbacks = after == null || after.isBlank()
+                ? first.apply(pageable)
+                : next.apply(TimeIdCursor.decode(after), pageable);
+        boolean hasMore = feedbacks.size() > pageSize;
+        if (hasMore) {
+            feedbacks = feedbacks.subList(0, pageSize);
+        }
 
+        String nextCursor = null;
+        if (hasMore) {
+            Feedback last = feedbacks.get(feedbacks.size() - 1);
+            nextCursor = new TimeIdCursor(last.getCreatedAt(), last.getFeedbackId()).encode();
+        }
+        return CursorPageDTO.<Feedback>builder()
+                .items(feedbacks)
+                .next_cursor(nextCursor)
+                .has_more(hasMore)
+                .build();
+    }
 
+    public ResponseDTO<FeedbackStatsDTO> getStats(Integer days) {
+        try {
+            FeedbackStatsDTO stats = feedbackStatsService.getStats(days);
+            return new ResponseDTO<>(true, "Feedback stats from " + stats.getFrom() + " to " + stats.getTo(), stats);
+        } catch (Exception e) {
+            log.error("Error fetching feedback stats", e);
+            return new ResponseDTO<>(false, "Failed to fetch feedback stats: " + e.getMessage(), null);
+        }
+    }
+}
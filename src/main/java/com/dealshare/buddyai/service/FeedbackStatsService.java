@@ -0,0 +1,284 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.FeedbackStatsDTO;
+import com.dealshare.buddyai.model.Feedback;
+import com.dealshare.buddyai.model.FeedbackRollup;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Feedback analytics served from feedback_rollups: one document per day,
+ * category and channel holding counts, a rating histogram and a rating sum.
+ *
+ * Every stored feedback record is added with a single upsert {@code $inc}, so
+ * /api/feedback/stats reads at most days x categories x channels small documents
+ * no matter how much feedback exists. Rollup writes are best effort; the nightly
+ * rebuild (app.feedback.stats.rebuild-cron) recomputes them from the feedback
+ * collection. Feedback stored while a rebuild runs may be counted twice or not at
+ * all until the next one. Only one instance rebuilds at a time (the
+ * feedback_rollups_rebuild lock, held for at most app.feedback.stats.rebuild-lock-ttl).
+ */
+@Slf4j
+@Service
+public class FeedbackStatsService {
+
+    private static final String UNKNOWN_CATEGORY = "unknown";
+    private static final String DEFAULT_CHANNEL = "web";
+    private static final String REBUILD_LOCK = "feedback_rollups_rebuild";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoLockService lockService;
+    private final Duration rebuildLockTtl;
+    private final int maxDays;
+    private final Cache<Integer, FeedbackStatsDTO> statsCache;
+
+    public FeedbackStatsService(MongoTemplate mongoTemplate,
+                                MongoLockService lockService,
+                                @Value("${app.feedback.stats.max-days:90}") int maxDays,
+                                @Value("${app.feedback.stats.cache-ttl:10s}") Duration cacheTtl,
+                                @Value("${app.feedback.stats.rebuild-lock-ttl:30m}") Duration rebuildLockTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.lockService = lockService;
+        this.rebuildLockTtl = rebuildLockTtl;
+        this.maxDays = maxDays;
+        this.statsCache = Caffeine.newBuilder()
+                .maximumSize(maxDays)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Add newly stored feedback to its rollups
+     */
+    public void record(Collection<Feedback> feedbacks) {
+        if (feedbacks.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedbackRollup.class);
+            LocalDateTime now = LocalDateTime.now();
+            for (Feedback feedback : feedbacks) {
+                LocalDate day = feedback.getCreatedAt() != null ? feedback.getCreatedAt().toLocalDate() : now.toLocalDate();
+                String category = category(feedback.getCategory());
+                String channel = channel(feedback.getChannel());
+
+                Update update = new Update()
+                        .setOnInsert("day", day.toString())
+                        .setOnInsert("category", category)
+                        .setOnInsert("channel", channel)
+                        .inc("count", 1L)
+                        .set("updated_at", now);
+                if (feedback.getRating() != null) {
+                    update.inc("rating_count", 1L)
+                            .inc("rating_sum", (long) feedback.getRating())
+                            .inc("ratings." + feedback.getRating(), 1L);
+                }
+                ops.upsert(Query.query(Criteria.where("_id").is(rollupId(day.toString(), category, channel))), update);
+            }
+            ops.execute();
+        } catch (Exception e) {
+            log.error("Could not update feedback rollups for {} record(s): {}", feedbacks.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Totals, rating distribution, per category/channel averages and daily volumes for the last {@code days} days
+     */
+    public FeedbackStatsDTO getStats(Integer days) {
+        int window = days == null || days <= 0 ? 30 : Math.min(days, maxDays);
+        return statsCache.get(window, this::computeStats);
+    }
+
+    private FeedbackStatsDTO computeStats(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        List<FeedbackRollup> rollups = mongoTemplate.find(
+                Query.query(Criteria.where("day").gte(from.toString())), FeedbackRollup.class);
+
+        Totals total = new Totals();
+        Map<String, Long> distribution = new TreeMap<>();
+        Map<String, Totals> byCategory = new TreeMap<>();
+        Map<String, Totals> byChannel = new TreeMap<>();
+        Map<String, Totals> byDay = new TreeMap<>();
+        for (FeedbackRollup rollup : rollups) {
+            total.add(rollup);
+            byCategory.computeIfAbsent(rollup.getCategory(), key -> new Totals()).add(rollup);
+            byChannel.computeIfAbsent(rollup.getChannel(), key -> new Totals()).add(rollup);
+            byDay.computeIfAbsent(rollup.getDay(), key -> new Totals()).add(rollup);
+            if (rollup.getRatings() != null) {
+                rollup.getRatings().forEach((rating, count) -> distribution.merge(rating, count, Long::sum));
+            }
+        }
+
+        return FeedbackStatsDTO.builder()
+                .from(from)
+                .to(to)
+                .total(total.count)
+                .average_rating(total.average())
+                .rating_distribution(distribution)
+                .by_category(breakdown(byCategory))
+                .by_channel(breakdown(byChannel))
+                .daily(byDay.entrySet().stream()
+                        .map(entry -> FeedbackStatsDTO.DailyVolume.builder()
+                                .day(LocalDate.parse(entry.getKey()))
+                                .count(entry.getValue().count)
+                                .average_rating(entry.getValue().average())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Build the rollups on first start when there are none yet, or when they still use string IDs
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            boolean missing = !mongoTemplate.exists(new Query(), FeedbackRollup.class)
+                    && mongoTemplate.exists(new Query(), Feedback.class);
+            boolean legacyIds = mongoTemplate.exists(Query.query(Criteria.where("_id").type(JsonSchemaObject.Type.STRING)),
+                    FeedbackRollup.class);
+            if (missing || legacyIds) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Could not build feedback rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute every rollup from the feedback collection and remove rollups with no feedback left
+     */
+    @Scheduled(cron = "${app.feedback.stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        if (!lockService.tryAcquire(REBUILD_LOCK, rebuildLockTtl)) {
+            log.info("Feedback rollups are being rebuilt by another instance, skipping");
+            return;
+        }
+        try {
+            rebuildRollups();
+        } finally {
+            lockService.release(REBUILD_LOCK);
+        }
+    }
+
+    private void rebuildRollups() {
+        LocalDateTime started = LocalDateTime.now();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("rating")
+                        .and(DateOperators.dateOf("created_at")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                                .toString("%Y-%m-%d")).as("day")
+                        .and(ConditionalOperators.ifNull("category").then(UNKNOWN_CATEGORY)).as("category")
+                        .and(ConditionalOperators.ifNull("channel").then(DEFAULT_CHANNEL)).as("channel"),
+                Aggregation.group("day", "category", "channel", "rating").count().as("count"));
+
+        Map<FeedbackRollup.Key, FeedbackRollup> rollups = new LinkedHashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, Feedback.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            String day = key.getString("day");
+            if (day == null) {
+                continue;
+            }
+            String category = category(key.getString("category"));
+            String channel = channel(key.getString("channel"));
+            long count = ((Number) group.get("count")).longValue();
+
+            FeedbackRollup rollup = rollups.computeIfAbsent(rollupId(day, category, channel), id -> FeedbackRollup.builder()
+                    .id(id)
+                    .day(day)
+                    .category(category)
+                    .channel(channel)
+                    .count(0L)
+                    .ratingCount(0L)
+                    .ratingSum(0L)
+                    .ratings(new TreeMap<>())
+                    .build());
+            rollup.setCount(rollup.getCount() + count);
+            if (key.get("rating") instanceof Number rating) {
+                rollup.setRatingCount(rollup.getRatingCount() + count);
+                rollup.setRatingSum(rollup.getRatingSum() + rating.longValue() * count);
+                rollup.getRatings().merge(String.valueOf(rating.intValue()), count, Long::sum);
+            }
+        }
+
+        if (!rollups.isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedbackRollup.class);
+            LocalDateTime now = LocalDateTime.now();
+            for (FeedbackRollup rollup : rollups.values()) {
+                rollup.setUpdatedAt(now);
+                ops.replaceOne(Query.query(Criteria.where("_id").is(rollup.getId())), rollup,
+                        FindAndReplaceOptions.options().upsert());
+            }
+            ops.execute();
+        }
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("updated_at").lt(started)),
+                FeedbackRollup.class).getDeletedCount();
+        statsCache.invalidateAll();
+        log.info("Rebuilt {} feedback rollups, removed {} stale", rollups.size(), removed);
+    }
+
+    private static Map<String, FeedbackStatsDTO.Breakdown> breakdown(Map<String, Totals> totals) {
+        Map<String, FeedbackStatsDTO.Breakdown> breakdown = new LinkedHashMap<>();
+        totals.forEach((key, value) -> breakdown.put(key, FeedbackStatsDTO.Breakdown.builder()
+                .count(value.count)
+                .average_rating(value.average())
+                .build()));
+        return breakdown;
+    }
+
+    private static FeedbackRollup.Key rollupId(String day, String category, String channel) {
+        return new FeedbackRollup.Key(day, category, channel);
+    }
+
+    private static String category(String category) {
+        return category != null && !category.isBlank() ? category : UNKNOWN_CATEGORY;
+    }
+
+    private static String channel(String channel) {
+        return channel != null && !channel.isBlank() ? channel : DEFAULT_CHANNEL;
+    }
+
+    private static final class Totals {
+        private long count;
+        private long ratingCount;
+        private long ratingSum;
+
+        private void add(FeedbackRollup rollup) {
+            count += rollup.getCount() != null ? rollup.getCount() : 0;
+            ratingCount += rollup.getRatingCount() != null ? rollup.getRatingCount() : 0;
+            ratingSum += rollup.getRatingSum() != null ? rollup.getRatingSum() : 0;
+        }
+
+        private Double average() {
+            return ratingCount > 0 ? Math.round(ratingSum * 100.0 / ratingCount) / 100.0 : null;
+        }
+    }
+}
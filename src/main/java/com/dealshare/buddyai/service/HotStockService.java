@@ -0,0 +1,411 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory stock for flash-deal products (app.hot-stock.product-ids).
+ *
+ * Instead of one conditional Mongo update per order, this instance leases blocks
+ * of stock from a hot product: available_stock is decremented and the units are
+ * recorded under hot_stock_leases.&lt;instance-id&gt; on the same document, in one
+ * atomic update. Orders then take units from striped in-memory counters with CAS,
+ * so a counter can never hand out more than was leased and nothing is oversold.
+ *
+ * Sold units are flushed back to the lease in batches every
+ * app.hot-stock.flush-interval-ms, and every flush extends the lease to
+ * app.hot-stock.lease-ttl from now; unsold units are returned on shutdown. Instance
+ * ids are a hostname prefix plus a random UUID, so no two processes share a lease
+ * and a crashed instance's lease is never reused. Any instance returns a lease
+ * that has expired, minus every unit ordered for the product since its last
+ * flush, which may undersell but never oversells. An instance that misses its
+ * heartbeat for lease-ttl loses the lease and drops its in-memory units on the
+ * next flush, so keep lease-ttl well above the flush interval.
+ *
+ * A $set of available_stock would overwrite units other instances hold in
+ * leases, so feed imports and bulk updates reject stock values for hot products.
+ */
+@Slf4j
+@Service
+public class HotStockService {
+
+    private static final String LEASES = "hot_stock_leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final boolean enabled;
+    private final Set<Integer> hotProductIds;
+    private final String instanceId;
+    private final int leaseSize;
+    private final Duration leaseTtl;
+    private final int stripeCount;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    public HotStockService(MongoTemplate mongoTemplate,
+                           ProductCache productCache,
+                           @Value("${app.hot-stock.enabled:false}") boolean enabled,
+                           @Value("${app.hot-stock.product-ids:}") String productIds,
+                           @Value("${app.hot-stock.instance-id:${HOSTNAME:local}}") String instanceId,
+                           @Value("${app.hot-stock.lease-size:100}") int leaseSize,
+                           @Value("${app.hot-stock.lease-ttl:30s}") Duration leaseTtl,
+                           @Value("${app.hot-stock.stripes:8}") int stripeCount) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = productCache;
+        this.enabled = enabled;
+        this.hotProductIds = Arrays.stream(productIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        // Field names may not contain dots or start with $
+        this.instanceId = (instanceId + "_" + UUID.randomUUID()).replaceAll("[.$]", "_");
+        this.leaseSize = leaseSize;
+        this.leaseTtl = leaseTtl;
+        this.stripeCount = Math.max(1, stripeCount);
+    }
+
+    /**
+     * Per-product counter; each stripe holds part of the lease and its own unflushed sales
+     */
+    private static final class Counter {
+        private final int productId;
+        private final AtomicLong[] remaining;
+        private final AtomicLong[] sold;
+
+        private Counter(int productId, int stripes) {
+            this.productId = productId;
+            this.remaining = new AtomicLong[stripes];
+            this.sold = new AtomicLong[stripes];
+            for (int i = 0; i < stripes; i++) {
+                remaining[i] = new AtomicLong();
+                sold[i] = new AtomicLong();
+            }
+        }
+
+        private boolean tryTake(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(remaining.length);
+            for (int i = 0; i < remaining.length; i++) {
+                int stripe = (start + i) % remaining.length;
+                AtomicLong units = remaining[stripe];
+                long current;
+                while ((current = units.get()) >= quantity) {
+                    if (units.compareAndSet(current, current - quantity)) {
+                        sold[stripe].addAndGet(quantity);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private long drain() {
+            long total = 0;
+            for (AtomicLong units : remaining) {
+                total += units.getAndSet(0);
+            }
+            return total;
+        }
+
+        private void deposit(long units) {
+            long share = units / remaining.length;
+            for (int i = 0; i < remaining.length; i++) {
+                remaining[i].addAndGet(i == 0 ? share + units % remaining.length : share);
+            }
+        }
+
+        private long available() {
+            long total = 0;
+            for (AtomicLong units : remaining) {
+                total += units.get();
+            }
+            return total;
+        }
+
+        private long drainSold() {
+            long total = 0;
+            for (AtomicLong units : sold) {
+                total += units.getAndSet(0);
+            }
+            return total;
+        }
+    }
+
+    public boolean isHot(int productId) {
+        return enabled && hotProductIds.contains(productId);
+    }
+
+    /**
+     * Products whose stock is leased in memory; empty when the mode is off
+     */
+    public Set<Integer> hotProductIds() {
+        return enabled ? hotProductIds : Set.of();
+    }
+
+    /**
+     * Take stock for a hot product, leasing another block from Mongo when the counter runs dry
+     */
+    public boolean tryReserve(int productId, int quantity) {
+        Counter counter = counters.computeIfAbsent(productId, id -> new Counter(id, stripeCount));
+        if (counter.tryTake(quantity)) {
+            return true;
+        }
+        synchronized (counter) {
+            // Units may be spread across stripes; pool them before leasing more
+            long pooled = counter.drain();
+            if (pooled < quantity) {
+                pooled += lease(productId, Math.max(leaseSize, quantity - (int) pooled));
+            }
+            if (pooled < quantity) {
+                counter.deposit(pooled);
+                return false;
+            }
+            counter.sold[0].addAndGet(quantity);
+            counter.deposit(pooled - quantity);
+            return true;
+        }
+    }
+
+    /**
+     * Give back units taken by {@link #tryReserve}, e.g. when the rest of the order failed
+     */
+    public void release(int productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.sold[0].addAndGet(-quantity);
+            counter.remaining[0].addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Move up to {@code wanted} units from available_stock into this instance's lease
+     */
+    private int lease(int productId, int wanted) {
+        Update full = new Update()
+                .inc("available_stock", -wanted)
+                .inc(leaseField("units"), wanted)
+                .set(leaseField("expires_at"), leaseExpiry());
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("product_id").is(productId)
+                .and("available_stock").gte(wanted)), full, Product.class).getMatchedCount() > 0) {
+            productCache.invalidate(productId);
+            return wanted;
+        }
+
+        // Less than a full block left: lease whatever remains with a compare-and-set on the stock level
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Query query = Query.query(Criteria.where("product_id").is(productId));
+            query.fields().include("available_stock");
+            Product product = mongoTemplate.findOne(query, Product.class);
+            Integer stock = product != null ? product.getAvailableStock() : null;
+            if (stock == null || stock <= 0) {
+                return 0;
+            }
+            Update rest = new Update()
+                    .inc("available_stock", -stock)
+                    .inc(leaseField("units"), stock)
+                    .set(leaseField("expires_at"), leaseExpiry());
+            if (mongoTemplate.updateFirst(Query.query(Criteria.where("product_id").is(productId)
+                    .and("available_stock").is(stock)), rest, Product.class).getMatchedCount() > 0) {
+                productCache.invalidate(productId);
+                return stock;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Write sold units back to each lease and extend the leases still in use, in one bulk update
+     */
+    @Scheduled(fixedDelayString = "${app.hot-stock.flush-interval-ms:1000}")
+    public void flush() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        Date now = new Date();
+        Date expiresAt = leaseExpiry();
+        List<Counter> pending = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            long sold = counter.drainSold();
+            if (sold == 0 && counter.available() == 0) {
+                continue;
+            }
+            Update update = new Update().set(leaseField("expires_at"), expiresAt);
+            if (sold != 0) {
+                update.inc(leaseField("units"), -sold).set(leaseField("flushed_at"), now);
+            }
+            // Only while the lease is still ours; a recovered lease must not be recreated
+            ops.updateOne(ownLease(counter.productId), update);
+            pending.add(counter);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (ops.execute().getMatchedCount() < pending.size()) {
+            dropRecoveredLeases(pending);
+        }
+        log.debug("Flushed hot stock for {} products", pending.size());
+    }
+
+    /**
+     * Drop in-memory units of leases another instance returned after they expired
+     */
+    private void dropRecoveredLeases(List<Counter> flushed) {
+        for (Counter counter : flushed) {
+            synchronized (counter) {
+                if (!mongoTemplate.exists(ownLease(counter.productId), Product.class)) {
+                    long dropped = counter.drain();
+                    log.warn("Hot stock lease for product {} expired and was returned by another instance; "
+                            + "dropped {} unsold units", counter.productId, dropped);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush sales and hand unsold units back to available_stock
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        for (Counter counter : counters.values()) {
+            synchronized (counter) {
+                long unsold = counter.drain();
+                // If the lease expired and was recovered, its units are already back in available_stock
+                mongoTemplate.updateFirst(ownLease(counter.productId),
+                        new Update().inc("available_stock", Math.toIntExact(unsold)).unset(LEASES + "." + instanceId),
+                        Product.class);
+                productCache.invalidate(counter.productId);
+            }
+        }
+        if (!counters.isEmpty()) {
+            log.info("Returned hot stock leases for {} products", counters.size());
+        }
+    }
+
+    /**
+     * Return expired leases of instances that did not shut down cleanly, across all products.
+     * If Mongo is unreachable the leases stay in place, which undersells until the next
+     * recovery but never oversells.
+     */
+    @PostConstruct
+    public void recoverLeases() {
+        try {
+            returnExpiredLeases(Criteria.where(LEASES).exists(true));
+        } catch (DataAccessException e) {
+            log.error("Could not recover hot stock leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Periodic recovery for the configured hot products, found by product_id rather than a scan
+     */
+    @Scheduled(fixedDelayString = "${app.hot-stock.recover-interval-ms:30000}")
+    public void recoverExpiredLeases() {
+        if (!enabled || hotProductIds.isEmpty()) {
+            return;
+        }
+        try {
+            returnExpiredLeases(Criteria.where("product_id").in(hotProductIds).and(LEASES).exists(true));
+        } catch (DataAccessException e) {
+            log.error("Could not recover hot stock leases: {}", e.getMessage());
+        }
+    }
+
+    private void returnExpiredLeases(Criteria products) {
+        Query query = Query.query(products);
+        query.fields().include("product_id", LEASES);
+        Date now = new Date();
+
+        for (Document product : mongoTemplate.find(query, Document.class, "products")) {
+            int productId = product.getInteger("product_id");
+            Document leases = product.get(LEASES, Document.class);
+            for (String owner : leases.keySet()) {
+                Document entry = leases.get(owner, Document.class);
+                // Leases written before expiry was recorded have no expires_at and count as expired
+                Date expiresAt = entry.getDate("expires_at");
+                if (!owner.equals(instanceId) && (expiresAt == null || expiresAt.before(now))) {
+                    returnLease(productId, owner, entry);
+                }
+            }
+        }
+    }
+
+    private void returnLease(int productId, String owner, Document entry) {
+        String lease = LEASES + "." + owner;
+        long units = entry.get("units") instanceof Number n ? n.longValue() : 0;
+        Date flushedAt = entry.getDate("flushed_at");
+        Date expiresAt = entry.getDate("expires_at");
+
+        long unflushed = flushedAt != null ? orderedSince(productId, flushedAt) : units;
+        long returned = Math.max(0, units - unflushed);
+        // Matches only the lease as read: a late heartbeat or another instance's recovery wins
+        Criteria unchanged = Criteria.where("product_id").is(productId).and(lease + ".units").is(entry.get("units"));
+        unchanged = expiresAt != null
+                ? unchanged.and(lease + ".expires_at").is(expiresAt)
+                : unchanged.and(lease + ".expires_at").exists(false);
+        if (mongoTemplate.updateFirst(Query.query(unchanged),
+                new Update().inc("available_stock", Math.toIntExact(returned)).unset(lease),
+                Product.class).getMatchedCount() == 0) {
+            return;
+        }
+        productCache.invalidate(productId);
+        log.warn("Recovered expired hot stock lease of {} for product {}: {} leased, {} ordered since last flush, {} returned",
+                owner, productId, units, unflushed, returned);
+    }
+
+    /**
+     * Units of a product in orders created since the given time, across all instances
+     */
+    private long orderedSince(int productId, Date since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("created_at").gte(
+                        LocalDateTime.ofInstant(since.toInstant(), ZoneId.systemDefault()))
+                        .and("order_items.product_id").is(productId)),
+                Aggregation.unwind("order_items"),
+                Aggregation.match(Criteria.where("order_items.product_id").is(productId)),
+                Aggregation.group().sum("order_items.quantity").as("units"));
+        Document result = mongoTemplate.aggregate(aggregation, "orders", Document.class).getUniqueMappedResult();
+        return result != null && result.get("units") instanceof Number n ? n.longValue() : 0;
+    }
+
+    private Query ownLease(int productId) {
+        return Query.query(Criteria.where("product_id").is(productId).and(leaseField("units")).exists(true));
+    }
+
+    private Date leaseExpiry() {
+        return new Date(System.currentTimeMillis() + leaseTtl.toMillis());
+    }
+
+    private String leaseField(String field) {
+        return LEASES + "." + instanceId + "." + field;
+    }
+}
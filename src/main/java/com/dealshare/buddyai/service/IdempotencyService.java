@@ -0,0 +1,194 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.PlaceOrderRequestDTO;
+import com.dealshare.buddyai.dto.PlaceOrderResponseDTO;
+import com.dealshare.buddyai.model.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates order placement retries that carry an Idempotency-Key header.
+ *
+ * The first request with a key claims it by inserting an IN_PROGRESS record into
+ * idempotency_keys (the key is the _id, so concurrent claims collide on the unique
+ * index). Its response is stored on completion and kept in a bounded local cache,
+ * so retries within app.idempotency.ttl get the original response back without
+ * touching the order write path. Records expire through a TTL index.
+ *
+ * A claim records when it was taken and a random claim token. If the request holding
+ * it crashes, the claim is abandoned rather than kept until the TTL: a retry with the
+ * same request takes it over once it is older than app.idempotency.claim-timeout. The
+ * completion and release writes are conditional on the token, so a slow original
+ * request cannot overwrite the state of the retry that replaced it.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final Duration claimTimeout;
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.claim-timeout:60s}") Duration claimTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.claimTimeout = claimTimeout;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Thrown when a key is reused for a different request or its first request is still running
+     */
+    public static class IdempotencyConflictException extends RuntimeException {
+        public IdempotencyConflictException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Place the order once per (user, key); later calls return the stored response
+     */
+    public PlaceOrderResponseDTO execute(String key, PlaceOrderRequestDTO request,
+                                         Supplier<PlaceOrderResponseDTO> placeOrder) {
+        String id = request.getUserId() + ":" + key;
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, "cache");
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            mongoTemplate.insert(IdempotencyRecord.builder()
+                    .id(id)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.STATUS_IN_PROGRESS)
+                    .claimToken(claimToken)
+                    .claimedAt(now)
+                    .createdAt(now)
+                    .build());
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing != null && IdempotencyRecord.STATUS_COMPLETED.equals(existing.getStatus())) {
+                completed.put(id, existing);
+                return replay(existing, requestHash, "store");
+            }
+            if (existing != null && !existing.getRequestHash().equals(requestHash)) {
+                count("mismatch");
+                throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+            }
+            if (!takeOver(id, requestHash, claimToken)) {
+                count("in_progress");
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+            }
+            count("takeover");
+            log.warn("Took over abandoned idempotency claim {}", id);
+        }
+
+        count("miss");
+        PlaceOrderResponseDTO response;
+        try {
+            response = placeOrder.get();
+        } catch (RuntimeException e) {
+            // Release the key so the client can retry a failed request
+            mongoTemplate.remove(ownClaim(id, claimToken), IdempotencyRecord.class);
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean recorded = mongoTemplate.updateFirst(ownClaim(id, claimToken),
+                new Update().set("status", IdempotencyRecord.STATUS_COMPLETED)
+                        .set("response", response)
+                        .set("completed_at", now)
+                        .unset("claim_token"),
+                IdempotencyRecord.class).getModifiedCount() > 0;
+        if (!recorded) {
+            log.warn("Idempotency claim {} was taken over before order {} completed", id, response.getOrderId());
+        }
+        completed.put(id, IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.STATUS_COMPLETED)
+                .response(response)
+                .completedAt(now)
+                .build());
+        return response;
+    }
+
+    /**
+     * Atomically move an abandoned IN_PROGRESS claim (older than the claim timeout) to this request
+     */
+    private boolean takeOver(String id, String requestHash, String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+        Query stale = Query.query(Criteria.where("_id").is(id)
+                .and("status").is(IdempotencyRecord.STATUS_IN_PROGRESS)
+                .and("request_hash").is(requestHash)
+                // Claims written before claimed_at existed count as stale too
+                .orOperator(Criteria.where("claimed_at").lt(now.minus(claimTimeout)),
+                        Criteria.where("claimed_at").exists(false)));
+        return mongoTemplate.updateFirst(stale,
+                new Update().set("claim_token", claimToken).set("claimed_at", now),
+                IdempotencyRecord.class).getModifiedCount() > 0;
+    }
+
+    private static Query ownClaim(String id, String claimToken) {
+        return Query.query(Criteria.where("_id").is(id)
+                .and("status").is(IdempotencyRecord.STATUS_IN_PROGRESS)
+                .and("claim_token").is(claimToken));
+    }
+
+    private PlaceOrderResponseDTO replay(IdempotencyRecord record, String requestHash, String source) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            count("mismatch");
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+        count("hit_" + source);
+        log.debug("Replaying order {} for idempotency key {}", record.getResponse().getOrderId(), record.getId());
+        return record.getResponse();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("orders.idempotency", "result", result).increment();
+    }
+
+    private String hash(PlaceOrderRequestDTO request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+}
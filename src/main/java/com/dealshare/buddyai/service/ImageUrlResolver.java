@@ -0,0 +1,156 @@
+package com.dealshare.buddyai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves product names to Wikimedia Commons image URLs.
+ *
+ * Rules are compiled once from a resource file (see catalog/image-mappings.txt)
+ * and results are memoised per cleaned name, so a catalog with many products but
+ * few distinct names pays for rule evaluation once per name.
+ */
+@Slf4j
+@Component
+public class ImageUrlResolver {
+
+    private static final String URL_PREFIX = "https://commons.wikimedia.org/wiki/Special:FilePath/";
+
+    private final List<Rule> rules;
+    private final Cache<String, String> resolved;
+
+    public ImageUrlResolver(@Value("${app.seed.image-mappings:classpath:catalog/image-mappings.txt}") Resource mappings,
+                            @Value("${app.seed.image-cache-size:100000}") long cacheSize) {
+        this.rules = List.copyOf(load(mappings));
+        this.resolved = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        log.info("Loaded {} image mapping rules from {}", rules.size(), mappings.getDescription());
+    }
+
+    /**
+     * Full image URL for a product name
+     */
+    public String resolveUrl(String productName) {
+        return URL_PREFIX + resolveFilename(productName);
+    }
+
+    /**
+     * Image filename for a product name: first matching rule, else "<Cleaned_Name>.jpg"
+     */
+    public String resolveFilename(String productName) {
+        // Remove text in parentheses and replace spaces with underscores
+        String cleaned = productName
+                .replaceAll("\\(.*?\\)", "")
+                .replaceAll("\\s+", "_")
+                .trim();
+        return resolved.get(cleaned, this::evaluate);
+    }
+
+    private String evaluate(String cleaned) {
+        String lower = cleaned.toLowerCase();
+        for (Rule rule : rules) {
+            if (rule.matches(lower)) {
+                return rule.filename;
+            }
+        }
+        return cleaned.substring(0, Math.min(cleaned.length(), 50)) + ".jpg";
+    }
+
+    private static List<Rule> load(Resource mappings) {
+        List<Rule> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(mappings.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int eq = line.lastIndexOf('=');
+                if (eq <= 0 || eq == line.length() - 1) {
+                    throw new IllegalStateException("Invalid image mapping at line " + lineNumber + ": " + line);
+                }
+                loaded.add(Rule.parse(line.substring(0, eq), line.substring(eq + 1).trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read image mappings from " + mappings.getDescription(), e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Any-of alternatives, each an all-of list of required and excluded substrings
+     */
+    private static final class Rule {
+        private final String[][] required;
+        private final String[][] excluded;
+        private final String filename;
+
+        private Rule(String[][] required, String[][] excluded, String filename) {
+            this.required = required;
+            this.excluded = excluded;
+            this.filename = filename;
+        }
+
+        private static Rule parse(String condition, String filename) {
+            String[] alternatives = condition.split("\\|");
+            String[][] required = new String[alternatives.length][];
+            String[][] excluded = new String[alternatives.length][];
+            for (int i = 0; i < alternatives.length; i++) {
+                List<String> must = new ArrayList<>();
+                List<String> mustNot = new ArrayList<>();
+                for (String term : alternatives[i].split("\\+")) {
+                    term = term.trim();
+                    if (term.startsWith("!")) {
+                        mustNot.add(term.substring(1).trim());
+                    } else if (!term.isEmpty()) {
+                        must.add(term);
+                    }
+                }
+                required[i] = must.toArray(new String[0]);
+                excluded[i] = mustNot.toArray(new String[0]);
+            }
+            return new Rule(required, excluded, filename);
+        }
+
+        private boolean matches(String lower) {
+            for (int i = 0; i < required.length; i++) {
+                if (containsAll(lower, required[i]) && containsNone(lower, excluded[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean containsAll(String text, String[] terms) {
+            for (String term : terms) {
+                if (!text.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containsNone(String text, String[] terms) {
+            for (String term : terms) {
+                if (text.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dealshare.buddyai.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded, insert-only map from positive int IDs to non-negative int values.
+ *
+ * Entries are packed into a single long[] with open addressing (key in the high
+ * 32 bits, value in the low 32), so a million IDs take about 16 MB and a lookup is
+ * a few array reads with no boxing. Reads are lock-free under an optimistic stamp
+ * and fall back to a read lock only when they race a write. Once
+ * {@code maxEntries} IDs are stored further puts are refused.
+ */
+final class IntIdMap {
+
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxEntries;
+    private final StampedLock lock = new StampedLock();
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int size;
+
+    IntIdMap(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Value for a key, or {@link #MISSING}
+     */
+    int get(int key) {
+        if (key <= 0) {
+            return MISSING;
+        }
+        long stamp = lock.tryOptimisticRead();
+        int value = find(slots, key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(slots, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    boolean contains(int key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Store or overwrite a value; false if the key is invalid or the map is full
+     */
+    boolean put(int key, int value) {
+        if (key <= 0 || value < 0) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(slots, key);
+            if (slots[index] != 0) {
+                slots[index] = pack(key, value);
+                return true;
+            }
+            if (size >= maxEntries) {
+                return false;
+            }
+            // Keep the load factor at or below one half
+            if ((size + 1) * 2 > slots.length) {
+                slots = resize(slots);
+                index = indexOf(slots, key);
+            }
+            slots[index] = pack(key, value);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    boolean isFull() {
+        return size() >= maxEntries;
+    }
+
+    private static int find(long[] table, int key) {
+        long slot = table[indexOf(table, key)];
+        return slot == 0 ? MISSING : (int) slot;
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it belongs
+     */
+    private static int indexOf(long[] table, int key) {
+        int mask = table.length - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            long slot = table[index];
+            if (slot == 0 || (int) (slot >>> 32) == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private static long[] resize(long[] table) {
+        long[] resized = new long[table.length * 2];
+        for (long slot : table) {
+            if (slot != 0) {
+                resized[indexOf(resized, (int) (slot >>> 32))] = slot;
+            }
+        }
+        return resized;
+    }
+
+    private static long pack(int key, int value) {
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    // Sequential IDs would otherwise fill runs of adjacent slots
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,337 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.InventoryImportResultDTO;
+import com.dealshare.buddyai.event.CatalogChangedEvent;
+import com.dealshare.buddyai.model.Product;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams stock and price feeds (NDJSON or CSV) into batched bulk updates.
+ *
+ * The feed is read line by line from the request body and at most one batch of
+ * rows is held in memory; each batch is written before the next line is read,
+ * so a slow database naturally slows down consumption of the upload.
+ *
+ * Rows are keyed by product_id or sku_code and may carry available_stock,
+ * price and discounted_price. CSV feeds need a header row and do not support
+ * quoted fields. Stock for hot products (see HotStockService) is partly held in
+ * leases, so rows setting it are rejected rather than overwriting the leases.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryImportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final HotStockService hotStockService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private Integer batchSize;
+
+    private static final class Row {
+        private Integer productId;
+        private String skuCode;
+        private Integer availableStock;
+        private Double price;
+        private Double discountedPrice;
+    }
+
+    private static final class Progress {
+        private long read;
+        private long matched;
+        private long notFound;
+        private long rejected;
+        private int batches;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(reason);
+            }
+        }
+    }
+
+    /**
+     * Import a feed in the given format ("ndjson" or "csv")
+     */
+    public InventoryImportResultDTO importFeed(InputStream in, String format) throws IOException {
+        long start = System.currentTimeMillis();
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        Progress progress = new Progress();
+        List<Row> batch = new ArrayList<>(batchSize);
+        Set<Integer> hotProductIds = hotStockService.hotProductIds();
+        Set<String> hotSkuCodes = skuCodesOf(hotProductIds);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+
+                progress.read++;
+                Row row;
+                try {
+                    row = csv ? parseCsvRow(line, csvColumns) : parseJsonRow(line);
+                } catch (Exception e) {
+                    progress.reject("line " + lineNumber + ": unparseable: " + e.getMessage());
+                    continue;
+                }
+                if (row.productId == null && (row.skuCode == null || row.skuCode.isBlank())) {
+                    progress.reject("line " + lineNumber + ": product_id or sku_code is required");
+                    continue;
+                }
+                if (row.availableStock == null && row.price == null && row.discountedPrice == null) {
+                    progress.reject("line " + lineNumber + ": no stock or price fields");
+                    continue;
+                }
+                String negative = negativeField(row);
+                if (negative != null) {
+                    progress.reject("line " + lineNumber + ": " + negative + " must not be negative");
+                    continue;
+                }
+                if (row.availableStock != null
+                        && (row.productId != null ? hotProductIds.contains(row.productId) : hotSkuCodes.contains(row.skuCode))) {
+                    progress.reject("line " + lineNumber + ": available_stock of a hot stock product cannot be set by import");
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                }
+            }
+        }
+        flush(batch, progress);
+
+        if (progress.matched > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(this, progress.matched + " products restocked"));
+        }
+
+        long durationMs = Math.max(1, System.currentTimeMillis() - start);
+        double rowsPerSecond = progress.read * 1000.0 / durationMs;
+        log.info("Inventory import: {} rows read, {} matched, {} not found, {} rejected in {}ms ({} rows/s)",
+                progress.read, progress.matched, progress.notFound, progress.rejected, durationMs,
+                Math.round(rowsPerSecond));
+
+        return InventoryImportResultDTO.builder()
+                .rows_read(progress.read)
+                .rows_matched(progress.matched)
+                .rows_not_found(progress.notFound)
+                .rows_rejected(progress.rejected)
+                .batches(progress.batches)
+                .duration_ms(durationMs)
+                .rows_per_second(Math.round(rowsPerSecond * 10.0) / 10.0)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void flush(List<Row> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (Row row : batch) {
+            Criteria key = row.productId != null
+                    ? Criteria.where("product_id").is(row.productId)
+                    : Criteria.where("sku_code").is(row.skuCode);
+            Update update = new Update().set("updated_at", now);
+            if (row.availableStock != null) {
+                update.set("available_stock", row.availableStock);
+            }
+            if (row.price != null) {
+                update.set("price", row.price);
+            }
+            if (row.discountedPrice != null) {
+                update.set("discounted_price", row.discountedPrice);
+            }
+            ops.updateOne(Query.query(key), update);
+        }
+
+        BulkWriteResult result;
+        int failed = 0;
+        try {
+            result = ops.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            failed = e.getErrors().size();
+            for (BulkWriteError error : e.getErrors()) {
+                progress.reject("batch " + (progress.batches + 1) + " item " + error.getIndex() + ": " + error.getMessage());
+            }
+        }
+
+        progress.batches++;
+        progress.matched += result.getMatchedCount();
+        progress.notFound += batch.size() - failed - result.getMatchedCount();
+
+        invalidateCached(batch);
+        batch.clear();
+    }
+
+    /**
+     * SKU codes of the given products, so SKU-keyed rows can be matched against them
+     */
+    private Set<String> skuCodesOf(Set<Integer> productIds) {
+        Set<String> skuCodes = new HashSet<>();
+        if (productIds.isEmpty()) {
+            return skuCodes;
+        }
+        Query query = Query.query(Criteria.where("product_id").in(productIds));
+        query.fields().include("sku_code");
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            if (product.getSkuCode() != null) {
+                skuCodes.add(product.getSkuCode());
+            }
+        }
+        return skuCodes;
+    }
+
+    /**
+     * Evict written products from the cache; SKU-keyed rows are resolved to ids with one projected read
+     */
+    private void invalidateCached(List<Row> batch) {
+        List<Integer> productIds = new ArrayList<>(batch.size());
+        List<String> skuCodes = new ArrayList<>();
+        for (Row row : batch) {
+            if (row.productId != null) {
+                productIds.add(row.productId);
+            } else {
+                skuCodes.add(row.skuCode);
+            }
+        }
+        if (!skuCodes.isEmpty()) {
+            Query query = Query.query(Criteria.where("sku_code").in(skuCodes));
+            query.fields().include("product_id");
+            for (Product product : mongoTemplate.find(query, Product.class)) {
+                productIds.add(product.getProductId());
+            }
+        }
+        productCache.invalidateAll(productIds);
+    }
+
+    private Row parseJsonRow(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        Row row = new Row();
+        row.productId = jsonInt(node, "product_id");
+        row.skuCode = node.hasNonNull("sku_code") ? node.get("sku_code").asText() : null;
+        row.availableStock = jsonInt(node, "available_stock");
+        row.price = jsonDouble(node, "price");
+        row.discountedPrice = jsonDouble(node, "discounted_price");
+        return row;
+    }
+
+    /**
+     * Integer field or null if absent; strings, booleans and fractions are rejected rather than read as 0
+     */
+    private static Integer jsonInt(JsonNode node, String field) {
+        if (!node.hasNonNull(field)) {
+            return null;
+        }
+        JsonNode value = node.get(field);
+        if (!value.isIntegralNumber() || !value.canConvertToInt()) {
+            throw new IllegalArgumentException(field + " must be an integer, got " + value);
+        }
+        return value.intValue();
+    }
+
+    private static Double jsonDouble(JsonNode node, String field) {
+        if (!node.hasNonNull(field)) {
+            return null;
+        }
+        JsonNode value = node.get(field);
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException(field + " must be a number, got " + value);
+        }
+        return value.doubleValue();
+    }
+
+    private static String negativeField(Row row) {
+        if (row.availableStock != null && row.availableStock < 0) {
+            return "available_stock";
+        }
+        if (row.price != null && (row.price < 0 || row.price.isNaN())) {
+            return "price";
+        }
+        if (row.discountedPrice != null && (row.discountedPrice < 0 || row.discountedPrice.isNaN())) {
+            return "discounted_price";
+        }
+        return null;
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        String[] names = line.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].trim().toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    private Row parseCsvRow(String line, Map<String, Integer> columns) {
+        String[] values = line.split(",", -1);
+        Row row = new Row();
+        String productId = csvValue(values, columns, "product_id");
+        String stock = csvValue(values, columns, "available_stock");
+        String price = csvValue(values, columns, "price");
+        String discountedPrice = csvValue(values, columns, "discounted_price");
+        row.productId = productId != null ? Integer.valueOf(productId) : null;
+        row.skuCode = csvValue(values, columns, "sku_code");
+        row.availableStock = stock != null ? Integer.valueOf(stock) : null;
+        row.price = price != null ? Double.valueOf(price) : null;
+        row.discountedPrice = discountedPrice != null ? Double.valueOf(discountedPrice) : null;
+        return row;
+    }
+
+    private String csvValue(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,233 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.model.Product;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices order items from the catalog and reserves their stock atomically.
+ *
+ * Every product in an order gets a conditional {@code $inc} (available_stock >= qty)
+ * in a single unordered bulk write, tagged with the order's reservation token. If any
+ * item cannot be reserved, the tagged products are found and their stock is restored,
+ * so an order either reserves everything or nothing and stock never goes negative.
+ *
+ * Products designated hot in {@link HotStockService} are reserved from its
+ * in-memory counters instead and only the remaining items go to Mongo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryReservationService {
+
+    private static final String PENDING = "pending_reservations";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final HotStockService hotStockService;
+
+    /**
+     * Thrown when an order references unknown products or more stock than is available
+     */
+    public static class InsufficientStockException extends RuntimeException {
+        public InsufficientStockException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Overwrite client-supplied names, images and prices with catalog values.
+     * Uses one batched {@code product_id $in} read for the whole order.
+     */
+    public List<OrderItem> price(List<OrderItem> items) {
+        List<Integer> productIds = items.stream().map(OrderItem::getProductId).distinct().toList();
+        Query query = Query.query(Criteria.where("product_id").in(productIds));
+        query.fields().include("product_id", "product_name", "image_url", "price", "discounted_price");
+
+        Map<Integer, Product> catalog = new HashMap<>();
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            catalog.put(product.getProductId(), product);
+        }
+
+        List<OrderItem> priced = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            Product product = catalog.get(item.getProductId());
+            if (product == null) {
+                throw new InsufficientStockException("Product not found: " + item.getProductId());
+            }
+            if (item.getQuantity() <= 0) {
+                throw new InsufficientStockException("Invalid quantity for product " + item.getProductId());
+            }
+            double unitPrice = product.getDiscountedPrice() != null ? product.getDiscountedPrice()
+                    : product.getPrice() != null ? product.getPrice() : 0.0;
+            priced.add(OrderItem.builder()
+                    .productId(product.getProductId())
+                    .productName(product.getProductName())
+                    .imageUrl(product.getImageUrl())
+                    .quantity(item.getQuantity())
+                    .unitPrice(unitPrice)
+                    .totalPrice(Math.round(unitPrice * item.getQuantity() * 100.0) / 100.0)
+                    .status(item.getStatus())
+                    .build());
+        }
+        return priced;
+    }
+
+    /**
+     * Reserve stock for every item or none; throws if any product is short
+     */
+    public void reserve(String token, List<OrderItem> items) {
+        Map<Integer, Integer> quantities = totalQuantities(items);
+        Map<Integer, Integer> hot = reserveHot(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        try {
+            reserveInMongo(token, quantities);
+        } catch (RuntimeException e) {
+            hot.forEach(hotStockService::release);
+            throw e;
+        }
+    }
+
+    /**
+     * Take hot products out of {@code quantities} and reserve them in memory; all or nothing
+     */
+    private Map<Integer, Integer> reserveHot(Map<Integer, Integer> quantities) {
+        Map<Integer, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : List.copyOf(quantities.entrySet())) {
+            if (!hotStockService.isHot(entry.getKey())) {
+                continue;
+            }
+            if (!hotStockService.tryReserve(entry.getKey(), entry.getValue())) {
+                reserved.forEach(hotStockService::release);
+                throw new InsufficientStockException("Insufficient stock for product(s): [" + entry.getKey() + "]");
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+            quantities.remove(entry.getKey());
+        }
+        return reserved;
+    }
+
+    private void reserveInMongo(String token, Map<Integer, Integer> quantities) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            ops.updateOne(
+                    Query.query(Criteria.where("product_id").is(entry.getKey())
+                            .and("available_stock").gte(entry.getValue())),
+                    new Update().inc("available_stock", -entry.getValue()).push(PENDING, token));
+        }
+        BulkWriteResult result;
+        try {
+            result = ops.execute();
+        } catch (RuntimeException e) {
+            // Some decrements may have been applied (partial bulk, lost acknowledgement): undo whatever carries the token
+            productCache.invalidateAll(quantities.keySet());
+            log.warn("Reservation {} bulk write failed, rolling back: {}", token, e.getMessage());
+            rollbackTagged(token, quantities);
+            throw e;
+        }
+        productCache.invalidateAll(quantities.keySet());
+
+        if (result.getMatchedCount() == quantities.size()) {
+            clearToken(token, quantities);
+            return;
+        }
+
+        List<Integer> reserved = findTagged(token, quantities);
+        rollback(token, quantities, reserved);
+        List<Integer> shortItems = new ArrayList<>(quantities.keySet());
+        shortItems.removeAll(reserved);
+        log.info("Reservation {} failed, insufficient stock for products {}", token, shortItems);
+        throw new InsufficientStockException("Insufficient stock for product(s): " + shortItems);
+    }
+
+    /**
+     * Return reserved stock, e.g. when the order could not be saved after reserving
+     */
+    public void release(List<OrderItem> items) {
+        Map<Integer, Integer> quantities = totalQuantities(items);
+        for (Map.Entry<Integer, Integer> entry : List.copyOf(quantities.entrySet())) {
+            if (hotStockService.isHot(entry.getKey())) {
+                hotStockService.release(entry.getKey(), entry.getValue());
+                quantities.remove(entry.getKey());
+            }
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            ops.updateOne(Query.query(Criteria.where("product_id").is(entry.getKey())),
+                    new Update().inc("available_stock", entry.getValue()));
+        }
+        ops.execute();
+        productCache.invalidateAll(quantities.keySet());
+    }
+
+    private Map<Integer, Integer> totalQuantities(List<OrderItem> items) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private void clearToken(String token, Map<Integer, Integer> quantities) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("product_id").in(quantities.keySet())),
+                new Update().pull(PENDING, token),
+                Product.class);
+    }
+
+    private List<Integer> findTagged(String token, Map<Integer, Integer> quantities) {
+        Query query = Query.query(Criteria.where("product_id").in(quantities.keySet()).and(PENDING).is(token));
+        query.fields().include("product_id");
+        return mongoTemplate.find(query, Product.class).stream().map(Product::getProductId).toList();
+    }
+
+    /**
+     * Best-effort rollback after a failed bulk write; retried once, then logged for manual repair
+     */
+    private void rollbackTagged(String token, Map<Integer, Integer> quantities) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rollback(token, quantities, findTagged(token, quantities));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= 2) {
+                    log.error("Could not roll back reservation {} for products {}; stock tagged with this token "
+                            + "in {} must be restored by hand: {}", token, quantities, PENDING, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private void rollback(String token, Map<Integer, Integer> quantities, List<Integer> reserved) {
+        if (reserved.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Integer productId : reserved) {
+            ops.updateOne(
+                    Query.query(Criteria.where("product_id").is(productId).and(PENDING).is(token)),
+                    new Update().inc("available_stock", quantities.get(productId)).pull(PENDING, token));
+        }
+        ops.execute();
+    }
+}
@@ -0,0 +1,253 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.QueryPlanDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declares the indexes every repository query relies on, creates them at startup
+ * and then explains each query shape to confirm none falls back to a COLLSCAN.
+ *
+ * New query paths should add their index to {@link #indexes()} and their shape to
+ * {@link #queryShapes()}; the plan summary is exposed on /actuator/queryplans.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MongoIndexService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.indexes.fail-on-collscan:false}")
+    private Boolean failOnCollscan;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration idempotencyTtl;
+
+    private volatile List<QueryPlanDTO> planSummary = List.of();
+
+    private record IndexSpec(String collection, Index index) {
+    }
+
+    private record ObsoleteIndex(String collection, String name) {
+    }
+
+    private record QueryShape(String name, String collection, Document filter, Document sort) {
+    }
+
+    private List<IndexSpec> indexes() {
+        return List.of(
+                new IndexSpec("products", new Index().on("product_id", Sort.Direction.ASC).unique().named("product_id_unique")),
+                new IndexSpec("products", new Index().on("sku_code", Sort.Direction.ASC).unique().sparse().named("sku_code_unique")),
+                new IndexSpec("products", new Index().on("is_popular", Sort.Direction.ASC).on("rating", Sort.Direction.DESC)
+                        .on("product_id", Sort.Direction.ASC).named("popular_rating")),
+                new IndexSpec("products", new Index().on("category", Sort.Direction.ASC).on("product_id", Sort.Direction.ASC)
+                        .named("category_product_id")),
+                new IndexSpec("orders", new Index().on("order_id", Sort.Direction.ASC).unique().named("order_id_unique")),
+                new IndexSpec("orders", new Index().on("user_id", Sort.Direction.ASC).on("order_date", Sort.Direction.DESC)
+                        .on("order_id", Sort.Direction.DESC).named("user_id_order_date")),
+                new IndexSpec("orders", new Index().on("order_date", Sort.Direction.DESC).on("order_id", Sort.Direction.DESC)
+                        .named("order_date_order_id")),
+                new IndexSpec("feedback", new Index().on("feedback_id", Sort.Direction.ASC).unique().named("feedback_id_unique")),
+                new IndexSpec("feedback", new Index().on("user_id", Sort.Direction.ASC).on("created_at", Sort.Direction.DESC)
+                        .on("feedback_id", Sort.Direction.DESC).named("user_id_created_at_feedback_id")),
+                new IndexSpec("feedback", new Index().on("order_id", Sort.Direction.ASC).on("created_at", Sort.Direction.DESC)
+                        .on("feedback_id", Sort.Direction.DESC).named("order_id_created_at_feedback_id")),
+                new IndexSpec("users", new Index().on("user_id", Sort.Direction.ASC).unique().named("user_id_unique")),
+                new IndexSpec("orders", outboxPendingIndex()),
+                new IndexSpec("feedback", outboxPendingIndex()),
+                new IndexSpec("feedback_rollups", new Index().on("day", Sort.Direction.ASC).named("day")),
+                new IndexSpec("order_summaries", new Index().on("user_id", Sort.Direction.ASC).unique().named("user_id_unique")),
+                new IndexSpec("idempotency_keys", new Index().on("created_at", Sort.Direction.ASC).expire(idempotencyTtl)
+                        .named("created_at_ttl"))
+        );
+    }
+
+    /**
+     * Indexes replaced by a differently named one in {@link #indexes()}, dropped at startup
+     */
+    private List<ObsoleteIndex> obsoleteIndexes() {
+        return List.of(
+                new ObsoleteIndex("feedback", "user_id_created_at"),
+                new ObsoleteIndex("feedback", "order_id_created_at"),
+                new ObsoleteIndex("orders", "outbox_pending"),
+                new ObsoleteIndex("feedback", "outbox_pending")
+        );
+    }
+
+    /**
+     * Only documents with unrelayed events are indexed, so the index stays tiny
+     */
+    private Index outboxPendingIndex() {
+        return new Index().on("outbox_pending", Sort.Direction.ASC).on("outbox_since", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("outbox_pending").is(true)))
+                .named("outbox_pending_since");
+    }
+
+    private List<QueryShape> queryShapes() {
+        return List.of(
+                new QueryShape("ProductRepository.findByProductId", "products",
+                        new Document("product_id", 1), null),
+                new QueryShape("ProductRepository.findBySkuCode", "products",
+                        new Document("sku_code", "SKU"), null),
+                new QueryShape("ProductService.getAllProducts", "products",
+                        new Document("product_id", new Document("$gt", 0)), new Document("product_id", 1)),
+                new QueryShape("ProductService.searchProducts(category)", "products",
+                        new Document("category", "Beverages").append("product_id", new Document("$gt", 0)),
+                        new Document("product_id", 1)),
+                new QueryShape("ProductService.loadRecommendations", "products",
+                        new Document("is_popular", true), new Document("rating", -1).append("product_id", 1)),
+                new QueryShape("OrderRepository.findByOrderId", "orders",
+                        new Document("order_id", 1), null),
+                new QueryShape("OrderService.getOrders(userId)", "orders",
+                        new Document("user_id", 1), new Document("order_date", -1).append("order_id", -1)),
+                new QueryShape("OrderService.getOrders", "orders",
+                        new Document(), new Document("order_date", -1).append("order_id", -1)),
+                new QueryShape("OrderRepository.findTopByOrderByOrderIdDesc", "orders",
+                        new Document(), new Document("order_id", -1)),
+                new QueryShape("FeedbackRepository.existsByFeedbackId", "feedback",
+                        new Document("feedback_id", 1), null),
+                new QueryShape("FeedbackRepository.findByUserId", "feedback",
+                        new Document("user_id", 1), new Document("created_at", -1).append("feedback_id", -1)),
+                new QueryShape("FeedbackRepository.findByOrderId", "feedback",
+                        new Document("order_id", 1), new Document("created_at", -1).append("feedback_id", -1)),
+                new QueryShape("UserRepository.findByUserId", "users",
+                        new Document("user_id", 1), null),
+                new QueryShape("OutboxRelay.readPending(orders)", "orders",
+                        new Document("outbox_pending", true), new Document("outbox_since", 1)),
+                new QueryShape("OutboxRelay.readPending(feedback)", "feedback",
+                        new Document("outbox_pending", true), new Document("outbox_since", 1)),
+                new QueryShape("OrderSummaryService.find", "order_summaries",
+                        new Document("user_id", 1), null),
+                new QueryShape("FeedbackStatsService.getStats", "feedback_rollups",
+                        new Document("day", new Document("$gte", "2026-01-01")), null)
+        );
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes();
+        verifyQueryPlans();
+    }
+
+    /**
+     * Create any missing indexes, then drop obsolete ones; failures (e.g. duplicates blocking
+     * a unique index) are logged, not fatal
+     */
+    public void ensureIndexes() {
+        for (IndexSpec spec : indexes()) {
+            try {
+                mongoTemplate.indexOps(spec.collection()).ensureIndex(spec.index());
+            } catch (Exception e) {
+                log.error("Could not create index {} on {}: {}",
+                        spec.index().getIndexOptions().get("name"), spec.collection(), e.getMessage());
+            }
+        }
+        // Only after their replacements exist, so queries are never left without an index
+        for (ObsoleteIndex obsolete : obsoleteIndexes()) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(obsolete.collection());
+                if (indexOps.getIndexInfo().stream().anyMatch(info -> info.getName().equals(obsolete.name()))) {
+                    indexOps.dropIndex(obsolete.name());
+                    log.info("Dropped obsolete index {} on {}", obsolete.name(), obsolete.collection());
+                }
+            } catch (Exception e) {
+                log.error("Could not drop index {} on {}: {}", obsolete.name(), obsolete.collection(), e.getMessage());
+            }
+        }
+        log.info("Ensured {} MongoDB indexes", indexes().size());
+    }
+
+    /**
+     * Explain every registered query shape and record its winning plan
+     */
+    public List<QueryPlanDTO> verifyQueryPlans() {
+        List<QueryPlanDTO> plans = new ArrayList<>();
+        for (QueryShape shape : queryShapes()) {
+            plans.add(explain(shape));
+        }
+        planSummary = List.copyOf(plans);
+
+        List<String> collscans = plans.stream()
+                .filter(QueryPlanDTO::getCollscan)
+                .map(QueryPlanDTO::getQuery)
+                .toList();
+        if (collscans.isEmpty()) {
+            log.info("Verified {} query plans, none use a collection scan", plans.size());
+        } else if (failOnCollscan) {
+            throw new IllegalStateException("Queries fall back to COLLSCAN: " + collscans);
+        } else {
+            log.warn("Queries fall back to COLLSCAN: {}", collscans);
+        }
+        return planSummary;
+    }
+
+    public List<QueryPlanDTO> getPlanSummary() {
+        return planSummary;
+    }
+
+    private QueryPlanDTO explain(QueryShape shape) {
+        Document find = new Document("find", shape.collection()).append("filter", shape.filter());
+        if (shape.sort() != null) {
+            find.append("sort", shape.sort());
+        }
+        QueryPlanDTO.QueryPlanDTOBuilder plan = QueryPlanDTO.builder()
+                .query(shape.name())
+                .collection(shape.collection())
+                .filter(shape.filter().toJson())
+                .sort(shape.sort() != null ? shape.sort().toJson() : null);
+        try {
+            Document result = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document queryPlanner = result.get("queryPlanner", Document.class);
+            Object winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan") : null;
+
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+            return plan.plan(String.join(" > ", stages))
+                    .collscan(stages.stream().anyMatch(stage -> stage.startsWith("COLLSCAN")))
+                    .build();
+        } catch (Exception e) {
+            log.warn("Could not explain {}: {}", shape.name(), e.getMessage());
+            return plan.plan("explain failed: " + e.getMessage()).collscan(false).build();
+        }
+    }
+
+    /**
+     * Walk a winning plan (classic or SBE layout) and list its stages, outermost first
+     */
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document doc) {
+            Object stage = doc.get("stage");
+            if (stage != null) {
+                Object indexName = doc.get("indexName");
+                stages.add(indexName != null ? stage + "(" + indexName + ")" : stage.toString());
+            }
+            for (Object value : doc.values()) {
+                collectStages(value, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                collectStages(item, stages);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dealshare.buddyai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Named locks shared by all instances, one document per lock in the "locks" collection.
+ *
+ * A lock is taken by upserting its document when it is absent or expired; while another
+ * instance holds it the upsert collides on _id and the caller gets false. Locks expire
+ * after the TTL given on acquire, so a crashed holder blocks the job for at most that long.
+ */
+@Slf4j
+@Service
+public class MongoLockService {
+
+    private static final String LOCKS = "locks";
+
+    private final MongoTemplate mongoTemplate;
+    private final String owner;
+
+    public MongoLockService(MongoTemplate mongoTemplate,
+                            @Value("${HOSTNAME:local}") String hostname) {
+        this.mongoTemplate = mongoTemplate;
+        this.owner = hostname + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Take the lock for {@code ttl}; false if another instance holds it
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(name).and("expires_at").lt(now)),
+                    new Update().set("owner", owner).set("acquired_at", now).set("expires_at", now.plus(ttl)),
+                    LOCKS);
+            return true;
+        } catch (DuplicateKeyException e) {
+            Document holder = mongoTemplate.findById(name, Document.class, LOCKS);
+            log.debug("Lock {} is held by {}", name, holder != null ? holder.get("owner") : "another instance");
+            return false;
+        }
+    }
+
+    /**
+     * Release the lock if this instance still holds it
+     */
+    public void release(String name) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("owner").is(owner)), LOCKS);
+    }
+}
@@ -0,0 +1,160 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.event.OrderStatusChangedEvent;
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves the order a chat conversation is about into a compact prompt summary.
+ *
+ * Summaries are cached per conversation (bounded, expiring after
+ * app.conversation.ttl-seconds of inactivity), so only the first turn that
+ * mentions an order reads it from Mongo; that read runs on the task executor
+ * while the rest of the prompt is assembled.
+ */
+@Slf4j
+@Service
+public class OrderContextService {
+
+    private static final int MAX_ITEMS = 10;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    private final OrderRepository orderRepository;
+    private final Executor executor;
+    private final Cache<String, OrderContext> byConversation;
+
+    // summary is null while loading and once the order changed; the next turn reloads it.
+    // Entries are compared by identity, so each marker is a distinct instance
+    private record OrderContext(int orderId, String summary) {
+    }
+
+    public OrderContextService(OrderRepository orderRepository,
+                               @Qualifier("applicationTaskExecutor") Executor executor,
+                               @Value("${app.conversation.order-context-cache-size:10000}") long cacheSize,
+                               @Value("${app.conversation.ttl-seconds:3600}") long ttlSeconds) {
+        this.orderRepository = orderRepository;
+        this.executor = executor;
+        this.byConversation = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Order ID from the request's order_id, or from order_info ("order_id"/"orderId")
+     */
+    public Integer resolveOrderId(Integer orderId, Map<String, Object> orderInfo) {
+        if (orderId != null) {
+            return orderId;
+        }
+        if (orderInfo == null) {
+            return null;
+        }
+        Object value = orderInfo.getOrDefault("order_id", orderInfo.get("orderId"));
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text && text.trim().matches("\\d+")) {
+            return Integer.valueOf(text.trim());
+        }
+        return null;
+    }
+
+    /**
+     * Prompt summary for the conversation's order. A new orderId replaces the cached one;
+     * a null orderId reuses whatever order the conversation was already about.
+     * Completes with null when there is no order.
+     */
+    public CompletableFuture<String> contextFor(String conversationId, Integer orderId) {
+        OrderContext cached = byConversation.getIfPresent(conversationId);
+        if (cached != null && (orderId == null || cached.orderId() == orderId)) {
+            if (cached.summary() != null) {
+                return CompletableFuture.completedFuture(cached.summary());
+            }
+            orderId = cached.orderId();
+        }
+        if (orderId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int id = orderId;
+        return CompletableFuture.supplyAsync(() -> load(conversationId, id), executor);
+    }
+
+    /**
+     * Mark cached summaries of an order stale once its status changed
+     */
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null) {
+            return;
+        }
+        int orderId = event.getOrderId();
+        byConversation.asMap().replaceAll((conversationId, context) ->
+                context.orderId() == orderId ? new OrderContext(orderId, null) : context);
+    }
+
+    public void evict(String conversationId) {
+        byConversation.invalidate(conversationId);
+    }
+
+    /**
+     * Read and cache the summary. It is stored only if the marker placed before the read is
+     * still there, so a status change (or eviction) during the read is not overwritten.
+     */
+    private String load(String conversationId, int orderId) {
+        OrderContext loading = new OrderContext(orderId, null);
+        byConversation.put(conversationId, loading);
+        String summary = orderRepository.findByOrderId(orderId)
+                .map(this::summarize)
+                .orElse("Order #" + orderId + " was not found. Ask the customer to check the order ID.");
+        byConversation.asMap().computeIfPresent(conversationId, (id, current) ->
+                current == loading ? new OrderContext(orderId, summary) : current);
+        log.debug("Loaded order context for {} (order {})", conversationId, orderId);
+        return summary;
+    }
+
+    /**
+     * e.g. "Order #10023, placed 18 Oct 2026, status Shipped, total Rs 532.00, paid by UPI, items: 2 x Tata Salt, 1 x Amul Milk"
+     */
+    private String summarize(Order order) {
+        StringBuilder summary = new StringBuilder("Order #").append(order.getOrderId());
+        if (order.getOrderDate() != null) {
+            summary.append(", placed ").append(order.getOrderDate().format(DATE_FORMAT));
+        }
+        summary.append(", status ").append(order.getStatus())
+                .append(", total Rs ").append(String.format("%.2f", order.getTotalAmount()));
+        if (order.getPaymentMethod() != null) {
+            summary.append(", paid by ").append(order.getPaymentMethod());
+        }
+
+        List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+        if (!items.isEmpty()) {
+            summary.append(", items: ");
+            for (int i = 0; i < Math.min(items.size(), MAX_ITEMS); i++) {
+                if (i > 0) {
+                    summary.append(", ");
+                }
+                summary.append(items.get(i).getQuantity()).append(" x ").append(items.get(i).getProductName());
+            }
+            if (items.size() > MAX_ITEMS) {
+                summary.append(" and ").append(items.size() - MAX_ITEMS).append(" more");
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,263 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.OrderStatusEventDTO;
+import com.dealshare.buddyai.event.OrderStatusChangedEvent;
+import com.dealshare.buddyai.model.Order;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Fans order status changes out to Server-Sent Event subscribers and remembers
+ * the latest status of recently active orders.
+ *
+ * Only changes made by this instance arrive as events, so the latest status is
+ * kept for app.orders.events.latest-ttl (seconds) and orders with subscribers
+ * are re-read every app.orders.events.poll-interval-ms to pick up changes made
+ * elsewhere.
+ *
+ * Each subscriber has its own bounded buffer drained on the task executor, so a
+ * slow client never blocks OrderService or other subscribers; when a buffer is
+ * full the oldest update is dropped (only the latest status matters to a
+ * tracking screen) and counted in orders.events.dropped.
+ */
+@Slf4j
+@Service
+public class OrderEventService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final Cache<Integer, OrderStatusEventDTO> latest;
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Counter dropped;
+
+    public OrderEventService(MongoTemplate mongoTemplate,
+                             @Qualifier("applicationTaskExecutor") Executor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.orders.events.buffer-size:16}") int bufferSize,
+                             @Value("${app.orders.events.emitter-timeout:30m}") Duration emitterTimeout,
+                             @Value("${app.orders.events.latest-cache-size:100000}") long latestCacheSize,
+                             @Value("${app.orders.events.latest-ttl:5s}") Duration latestTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.latest = Caffeine.newBuilder()
+                .maximumSize(latestCacheSize)
+                .expireAfterWrite(latestTtl)
+                .build();
+        this.dropped = meterRegistry.counter("orders.events.dropped");
+        meterRegistry.gaugeMapSize("orders.events.subscribed_orders", Tags.empty(), subscribers);
+    }
+
+    /**
+     * One SSE connection; updates queue here and are sent by at most one executor task at a time
+     */
+    private final class Subscriber {
+        private final int orderId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<OrderStatusEventDTO> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private boolean received;
+        private String lastStatus;
+
+        private Subscriber(int orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        private void offer(OrderStatusEventDTO event) {
+            offer(event, false);
+        }
+
+        /**
+         * @param initial the status read at subscribe time; skipped if a live update already arrived,
+         *                since that one is newer
+         */
+        private void offer(OrderStatusEventDTO event, boolean initial) {
+            synchronized (this) {
+                if (closed || (initial && received)) {
+                    return;
+                }
+                received = true;
+                lastStatus = event.getStatus();
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        /**
+         * Send a status read from Mongo unless it is the last one this subscriber was sent
+         */
+        private void offerIfChanged(Order order) {
+            String previous;
+            synchronized (this) {
+                if (closed || Objects.equals(lastStatus, order.getStatus())) {
+                    return;
+                }
+                previous = lastStatus;
+            }
+            offer(OrderStatusEventDTO.builder()
+                    .order_id(order.getOrderId())
+                    .status(order.getStatus())
+                    .previous_status(previous)
+                    .changed_at(order.getUpdatedAt())
+                    .build());
+        }
+
+        private void drain() {
+            while (true) {
+                OrderStatusEventDTO event;
+                synchronized (this) {
+                    event = buffer.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event().name("status").data(event));
+                } catch (Exception e) {
+                    log.debug("Dropping order {} subscriber: {}", orderId, e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                buffer.clear();
+                draining = false;
+            }
+            unsubscribe(this);
+        }
+    }
+
+    /**
+     * Open an SSE stream for an order, starting with its current status; empty if the order does not exist
+     */
+    public Optional<SseEmitter> subscribe(int orderId) {
+        // Register before reading the current status, so a change in between is not missed
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(orderId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.compute(orderId, (id, set) -> {
+            Set<Subscriber> listeners = set != null ? set : ConcurrentHashMap.newKeySet();
+            listeners.add(subscriber);
+            return listeners;
+        });
+        Optional<OrderStatusEventDTO> current;
+        try {
+            current = latest(orderId);
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        if (current.isEmpty()) {
+            subscriber.close();
+            return Optional.empty();
+        }
+        subscriber.offer(current.get(), true);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Latest known status of an order, read from Mongo on a cache miss
+     */
+    public Optional<OrderStatusEventDTO> latest(int orderId) {
+        OrderStatusEventDTO cached = latest.getIfPresent(orderId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Query query = Query.query(Criteria.where("order_id").is(orderId));
+        query.fields().include("order_id", "status", "updated_at");
+        Order order = mongoTemplate.findOne(query, Order.class);
+        if (order == null) {
+            return Optional.empty();
+        }
+        OrderStatusEventDTO event = OrderStatusEventDTO.builder()
+                .order_id(order.getOrderId())
+                .status(order.getStatus())
+                .changed_at(order.getUpdatedAt())
+                .build();
+        latest.asMap().putIfAbsent(orderId, event);
+        return Optional.of(latest.asMap().getOrDefault(orderId, event));
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent change) {
+        OrderStatusEventDTO event = OrderStatusEventDTO.builder()
+                .order_id(change.getOrderId())
+                .status(change.getStatus())
+                .previous_status(change.getPreviousStatus())
+                .changed_at(change.getChangedAt())
+                .build();
+        latest.put(change.getOrderId(), event);
+
+        Set<Subscriber> listeners = subscribers.get(change.getOrderId());
+        if (listeners != null) {
+            listeners.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Re-read orders that have subscribers, to pass on status changes made by other instances
+     */
+    @Scheduled(fixedDelayString = "${app.orders.events.poll-interval-ms:5000}")
+    public void pollSubscribedOrders() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Query query = Query.query(Criteria.where("order_id").in(subscribers.keySet()));
+        query.fields().include("order_id", "status", "updated_at");
+        for (Order order : mongoTemplate.find(query, Order.class)) {
+            Set<Subscriber> listeners = subscribers.get(order.getOrderId());
+            if (listeners != null) {
+                listeners.forEach(subscriber -> subscriber.offerIfChanged(order));
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.orderId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -1,54 +1,147 @@
 package com.dealshare.buddyai.service;
 
+import com.dealshare.buddyai.dto.CursorPageDTO;
 import com.dealshare.buddyai.dto.PlaceOrderRequestDTO;
 import com.dealshare.buddyai.dto.PlaceOrderResponseDTO;
+import com.dealshare.buddyai.event.OrderStatusChangedEvent;
 import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.model.OrderStatus;
+import com.dealshare.buddyai.model.OutboxEvent;
 import com.dealshare.buddyai.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class OrderService {
 
+    private static final int LEGACY_ORDER_ID_BASE = 10000;
+    private static final String ORDER_SEQUENCE = "orders";
+    private static final int STREAM_BATCH_SIZE = 500;
+    // Newest first; order_id breaks ties between orders placed in the same millisecond
+    private static final Sort LISTING_SORT = Sort.by(Sort.Direction.DESC, "order_date", "order_id");
+
     private final OrderRepository orderRepository;
+    private final SequenceService sequenceService;
+    private final InventoryReservationService inventoryReservationService;
+    private final OrderWriter orderWriter;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+
+    @Value("${app.orders.page-size:20}")
+    private Integer defaultPageSize;
+
+    @Value("${app.orders.max-page-size:100}")
+    private Integer maxPageSize;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, SequenceService sequenceService,
+                        InventoryReservationService inventoryReservationService, OrderWriter orderWriter,
+                        MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                        OrderSummaryService orderSummaryService, ApplicationEventPublisher eventPublisher,
+                        OutboxService outboxService) {
         this.orderRepository = orderRepository;
+        this.sequenceService = sequenceService;
+        this.inventoryReservationService = inventoryReservationService;
+        this.orderWriter = orderWriter;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.orderSummaryService = orderSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+    }
+
+    @PostConstruct
+    public void checkIdHeadroom() {
+        try {
+            sequenceService.requireIntHeadroom(ORDER_SEQUENCE, this::highestOrderId);
+        } catch (DataAccessException e) {
+            log.warn("Could not check order ID headroom: {}", e.getMessage());
+        }
+    }
+
+    // Continue after the highest existing ID
+    private long highestOrderId() {
+        return orderRepository.findTopByOrderByOrderIdDesc()
+                .map(Order::getOrderId)
+                .orElse(LEGACY_ORDER_ID_BASE);
     }
 
     public PlaceOrderResponseDTO placeOrder(PlaceOrderRequestDTO request) {
-        // Generate sequential order ID - get max and increment by 1
-        int orderId = orderRepository.findAll().stream()
-                .mapToInt(Order::getOrderId)
-                .max()
-                .orElse(10000) + 1;
+        if (request.getOrderItems() == null || request.getOrderItems().isEmpty()) {
+            throw new InventoryReservationService.InsufficientStockException("Order has no items");
+        }
+
+        // Re-price items from the catalog; client-supplied prices are ignored
+        List<OrderItem> orderItems = inventoryReservationService.price(request.getOrderItems());
+
+        // Generate sequential order ID from the shared counter
+        int orderId = sequenceService.nextInt(ORDER_SEQUENCE, this::highestOrderId);
+
+        // Reserve stock for every item, or fail without touching inventory
+        inventoryReservationService.reserve("order-" + orderId, orderItems);
 
         // Calculate total amount
-        double totalAmount = request.getOrderItems().stream()
-                .mapToDouble(item -> item.getTotalPrice())
-                .sum();
+        double totalAmount = Math.round(orderItems.stream()
+                .mapToDouble(OrderItem::getTotalPrice)
+                .sum() * 100.0) / 100.0;
 
         // Create order
         Order order = Order.builder()
                 .orderId(orderId)
                 .userId(request.getUserId())
-                .orderItems(request.getOrderItems())
+                .orderItems(orderItems)
                 .totalAmount(totalAmount)
                 .paymentMethod(request.getPaymentMethod())
                 .deliveryAddress(request.getDeliveryAddress())
-                .status("Ordered")
+                .status(OrderStatus.ORDERED.getLabel())
                 .orderDate(LocalDateTime.now())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        // Save order to database
-        orderRepository.save(order);
+        // The OrderPlaced event is stored on the order itself, so both are written atomically
+        OutboxEvent placed = outboxService.orderPlaced(order);
+        if (placed != null) {
+            order.setOutbox(List.of(placed));
+            order.setOutboxPending(true);
+            order.setOutboxSince(placed.getCreatedAt());
+        }
+
+        // Save order to database, returning the reserved stock if that fails
+        try {
+            orderWriter.insert(order);
+        } catch (RuntimeException e) {
+            inventoryReservationService.release(orderItems);
+            throw e;
+        }
+        orderSummaryService.onOrderPlaced(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(this, orderId, order.getUserId(),
+                order.getStatus(), null, order.getCreatedAt()));
 
         // Return response
         return PlaceOrderResponseDTO.builder()
@@ -59,13 +152,113 @@ public class OrderService {
                 .build();
     }
 
-    public Object getAllOrders() {
-        // Return all orders from database
-        return orderRepository.findAll();
+    /**
+     * One page of orders, newest first, optionally for a single user.
+     * Keyset pagination on (user_id, order_date, order_id): {@code after} is the
+     * next_cursor of the previous page, so every page is an index range scan.
+     */
+    public CursorPageDTO<Order> getOrders(Integer userId, String after, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        Query query = listingQuery(userId);
+        if (after != null && !after.isBlank()) {
+            query.addCriteria(afterCursor(after));
+        }
+        query.limit(pageSize + 1);
+
+        List<Order> orders = mongoTemplate.find(query, Order.class);
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new TimeIdCursor(last.getOrderDate(), last.getOrderId()).encode();
+        }
+
+        return CursorPageDTO.<Order>builder()
+                .items(orders)
+                .next_cursor(nextCursor)
+                .has_more(hasMore)
+                .build();
+    }
+
+    /**
+     * Stream orders as NDJSON straight from a Mongo cursor, for exports
+     */
+    public void streamOrders(Integer userId, OutputStream out) throws IOException {
+        Query query = listingQuery(userId).cursorBatchSize(STREAM_BATCH_SIZE);
+
+        int count = 0;
+        try (Stream<Order> orders = mongoTemplate.stream(query, Order.class)) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++count % STREAM_BATCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Streamed {} orders as NDJSON", count);
     }
 
     public Optional<Order> getOrderById(int orderId) {
         return orderRepository.findByOrderId(orderId);
     }
+
+    /**
+     * Set an order's status; empty if the order does not exist
+     */
+    public Optional<Order> updateOrderStatus(int orderId, String requestedStatus) {
+        if (requestedStatus == null || requestedStatus.isBlank()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        String status = OrderStatus.from(requestedStatus)
+                .map(OrderStatus::getLabel)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown order status '" + requestedStatus
+                        + "'; expected one of " + Arrays.stream(OrderStatus.values()).map(OrderStatus::getLabel).toList()));
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().set("status", status).set("updated_at", now);
+        OutboxEvent changed = outboxService.orderStatusChanged(orderId, status, now);
+        if (changed != null) {
+            update.push("outbox", changed).set("outbox_pending", true).min("outbox_since", changed.getCreatedAt());
+        }
+        Order previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("order_id").is(orderId)), update, Order.class);
+        if (previous == null) {
+            return Optional.empty();
+        }
+
+        String previousStatus = previous.getStatus();
+        previous.setStatus(status);
+        previous.setUpdatedAt(now);
+        orderSummaryService.onStatusChanged(previous, previousStatus);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(this, orderId, previous.getUserId(),
+                previous.getStatus(), previousStatus, now));
+        return Optional.of(previous);
+    }
+
+    private Query listingQuery(Integer userId) {
+        Query query = new Query();
+        if (userId != null) {
+            query.addCriteria(Criteria.where("user_id").is(userId));
+        }
+        return query.with(LISTING_SORT);
+    }
+
+    private Criteria afterCursor(String token) {
+        TimeIdCursor cursor = TimeIdCursor.decode(token);
+        // Legacy orders without order_date sort last (null is lowest), ordered by order_id
+        if (cursor.time() == null) {
+            return Criteria.where("order_date").is(null).and("order_id").lt(cursor.id());
+        }
+        return new Criteria().orOperator(
+                Criteria.where("order_date").lt(cursor.time()),
+                Criteria.where("order_date").is(cursor.time()).and("order_id").lt(cursor.id()),
+                Criteria.where("order_date").is(null));
+    }
 }
 
@@ -0,0 +1,215 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.OrderSummaryDTO;
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.model.OrderStatus;
+import com.dealshare.buddyai.model.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains one order_summaries document per user: recent orders, status counts
+ * and units bought per product, so order views need a single point read on
+ * user_id instead of loading full Order documents.
+ *
+ * Placing an order and changing its status each apply one incremental update.
+ * Placement is guarded by recent_orders.order_id so it is applied at most once;
+ * users with orders from before the summary existed get theirs rebuilt from the
+ * orders collection the first time it is needed. Summary writes are best effort:
+ * a failure is logged and never fails the order itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.orders.summary.recent-orders:10}")
+    private Integer recentOrderLimit;
+
+    @Value("${app.orders.summary.frequently-bought:10}")
+    private Integer frequentlyBoughtLimit;
+
+    /**
+     * Summary for a user, building it from their orders if it does not exist yet; null if they have no orders
+     */
+    public OrderSummaryDTO getSummary(int userId) {
+        OrderSummary summary = find(userId);
+        if (summary == null) {
+            summary = rebuild(userId);
+        }
+        return summary != null ? toDTO(summary) : null;
+    }
+
+    public void onOrderPlaced(Order order) {
+        try {
+            if (applyPlaced(order) || exists(order.getUserId())) {
+                return;
+            }
+            // No summary yet: build it from the orders collection, which already has this order.
+            // If another request built it first, the guarded update adds this order only if it is missing.
+            rebuild(order.getUserId());
+            applyPlaced(order);
+        } catch (Exception e) {
+            log.error("Could not update order summary for user {}: {}", order.getUserId(), e.getMessage());
+        }
+    }
+
+    public void onStatusChanged(Order order, String previousStatus) {
+        if (previousStatus != null && previousStatus.equals(order.getStatus())) {
+            return;
+        }
+        try {
+            Update update = new Update()
+                    .inc("status_counts." + statusKey(order.getStatus()), 1)
+                    .set("recent_orders.$[recent].status", order.getStatus())
+                    .set("updated_at", LocalDateTime.now())
+                    .filterArray(Criteria.where("recent.order_id").is(order.getOrderId()));
+            if (previousStatus != null) {
+                update.inc("status_counts." + statusKey(previousStatus), -1);
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("user_id").is(order.getUserId())),
+                    update, OrderSummary.class);
+        } catch (Exception e) {
+            log.error("Could not update order summary for user {}: {}", order.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a newly placed order; false if there is no summary or it already has the order
+     */
+    private boolean applyPlaced(Order order) {
+        Update update = new Update()
+                .push("recent_orders").atPosition(0).slice(recentOrderLimit).each(recentOrder(order))
+                .inc("total_orders", 1)
+                .inc("total_spent", order.getTotalAmount())
+                .inc("status_counts." + statusKey(order.getStatus()), 1)
+                .max("last_order_at", order.getOrderDate())
+                .set("updated_at", LocalDateTime.now());
+        for (OrderItem item : order.getOrderItems()) {
+            update.inc("product_counts." + item.getProductId(), item.getQuantity());
+        }
+        Query query = Query.query(Criteria.where("user_id").is(order.getUserId())
+                .and("recent_orders.order_id").ne(order.getOrderId()));
+        return mongoTemplate.updateFirst(query, update, OrderSummary.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Recompute a user's summary from the orders collection; null if they have no orders
+     */
+    private OrderSummary rebuild(int userId) {
+        Query query = Query.query(Criteria.where("user_id").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "order_date", "order_id"));
+
+        OrderSummary summary = OrderSummary.builder()
+                .userId(userId)
+                .totalOrders(0)
+                .totalSpent(0.0)
+                .recentOrders(new ArrayList<>())
+                .statusCounts(new HashMap<>())
+                .productCounts(new HashMap<>())
+                .build();
+        try (Stream<Order> orders = mongoTemplate.stream(query, Order.class)) {
+            orders.forEach(order -> {
+                summary.setTotalOrders(summary.getTotalOrders() + 1);
+                summary.setTotalSpent(summary.getTotalSpent() + order.getTotalAmount());
+                if (summary.getRecentOrders().size() < recentOrderLimit) {
+                    summary.getRecentOrders().add(recentOrder(order));
+                }
+                if (summary.getLastOrderAt() == null) {
+                    summary.setLastOrderAt(order.getOrderDate());
+                }
+                summary.getStatusCounts().merge(statusKey(order.getStatus()), 1, Integer::sum);
+                if (order.getOrderItems() != null) {
+                    for (OrderItem item : order.getOrderItems()) {
+                        summary.getProductCounts().merge(String.valueOf(item.getProductId()), item.getQuantity(), Integer::sum);
+                    }
+                }
+            });
+        }
+        if (summary.getTotalOrders() == 0) {
+            return null;
+        }
+
+        summary.setUpdatedAt(LocalDateTime.now());
+        try {
+            mongoTemplate.insert(summary);
+            log.info("Built order summary for user {} from {} orders", userId, summary.getTotalOrders());
+            return summary;
+        } catch (DuplicateKeyException e) {
+            // Built concurrently by another request
+            return find(userId);
+        }
+    }
+
+    /**
+     * status_counts key for a status; legacy values outside {@link OrderStatus} are counted
+     * under "Other" so free text never ends up in a field path
+     */
+    private static String statusKey(String status) {
+        return OrderStatus.from(status).map(OrderStatus::getLabel).orElse("Other");
+    }
+
+    private OrderSummary find(int userId) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("user_id").is(userId)), OrderSummary.class);
+    }
+
+    private boolean exists(int userId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("user_id").is(userId)), OrderSummary.class);
+    }
+
+    private OrderSummary.RecentOrder recentOrder(Order order) {
+        List<OrderSummary.RecentOrderItem> items = order.getOrderItems() == null ? List.of()
+                : order.getOrderItems().stream()
+                        .map(item -> OrderSummary.RecentOrderItem.builder()
+                                .productId(item.getProductId())
+                                .productName(item.getProductName())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .toList();
+        return OrderSummary.RecentOrder.builder()
+                .orderId(order.getOrderId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .orderDate(order.getOrderDate())
+                .items(items)
+                .build();
+    }
+
+    private OrderSummaryDTO toDTO(OrderSummary summary) {
+        Map<String, Integer> productCounts = summary.getProductCounts() != null ? summary.getProductCounts() : Map.of();
+        List<Integer> frequentlyBought = productCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(frequentlyBoughtLimit)
+                .map(entry -> Integer.valueOf(entry.getKey()))
+                .toList();
+        return OrderSummaryDTO.builder()
+                .user_id(summary.getUserId())
+                .total_orders(summary.getTotalOrders())
+                .total_spent(summary.getTotalSpent() != null ? Math.round(summary.getTotalSpent() * 100.0) / 100.0 : 0.0)
+                .last_order_at(summary.getLastOrderAt())
+                .status_counts(summary.getStatusCounts())
+                .recent_orders(summary.getRecentOrders())
+                .frequently_bought(frequentlyBought)
+                .build();
+    }
+}
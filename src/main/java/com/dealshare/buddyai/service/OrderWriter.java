@@ -0,0 +1,262 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.repository.OrderRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists new orders, optionally with group commit.
+ *
+ * With app.orders.group-commit.enabled, concurrent inserts are queued and a single
+ * writer thread collects them for up to window-ms or batch-size orders, writes the
+ * batch with one unordered insert and completes each caller's future on its own,
+ * so one bad order does not fail the rest of its batch. When the queue is full
+ * orders are saved directly.
+ *
+ * Callers wait at most app.orders.group-commit.timeout. A timed-out order is never
+ * left behind: it is skipped if still queued, and deleted again if its batch was
+ * already in flight, so the caller can safely release its reserved stock. Orders
+ * submitted after shutdown fail instead of being written.
+ */
+@Slf4j
+@Service
+public class OrderWriter {
+
+    private final OrderRepository orderRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean groupCommit;
+    private final long windowMs;
+    private final int batchSize;
+    private final Duration timeout;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter timeouts;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread writer;
+
+    private record Pending(Order order, CompletableFuture<Void> done) {
+    }
+
+    public OrderWriter(OrderRepository orderRepository,
+                       MongoTemplate mongoTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.orders.group-commit.enabled:false}") boolean groupCommit,
+                       @Value("${app.orders.group-commit.window-ms:5}") long windowMs,
+                       @Value("${app.orders.group-commit.batch-size:100}") int batchSize,
+                       @Value("${app.orders.group-commit.queue-capacity:10000}") int queueCapacity,
+                       @Value("${app.orders.group-commit.timeout:5s}") Duration timeout) {
+        this.orderRepository = orderRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.groupCommit = groupCommit;
+        this.windowMs = windowMs;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("orders.group_commit.batch_size")
+                .description("Orders written per group-commit insert")
+                .register(meterRegistry);
+        this.timeouts = meterRegistry.counter("orders.group_commit.timeouts");
+    }
+
+    /**
+     * Thrown when an order was not acknowledged within the timeout; the order is not persisted
+     */
+    public static class OrderWriteTimeoutException extends RuntimeException {
+        public OrderWriteTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!groupCommit) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "order-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Order group commit enabled: window {}ms, batch size {}", windowMs, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Anything still queued is written by the caller's thread
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.stream().filter(pending -> !pending.done().isDone()).forEach(this::saveDirectly);
+    }
+
+    /**
+     * Insert an order and block until it is acknowledged or the timeout passes
+     */
+    public void insert(Order order) {
+        CompletableFuture<Void> done = submit(order);
+        try {
+            done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Losing this race means the write finished just now; report its real outcome
+            if (done.completeExceptionally(new OrderWriteTimeoutException(
+                    "Order " + order.getOrderId() + " was not saved within " + timeout.toMillis() + "ms"))) {
+                timeouts.increment();
+            }
+            outcome(done);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(new OrderWriteTimeoutException(
+                    "Interrupted while saving order " + order.getOrderId()));
+            outcome(done);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static void outcome(CompletableFuture<Void> done) {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * Queue an order for the next group commit; completes once its batch is written
+     */
+    public CompletableFuture<Void> submit(Order order) {
+        Pending pending = new Pending(order, new CompletableFuture<>());
+        if (stopped) {
+            pending.done().completeExceptionally(new IllegalStateException(
+                    "Order writer is shut down; order " + order.getOrderId() + " was not saved"));
+        } else if (!running || !queue.offer(pending)) {
+            saveDirectly(pending);
+        }
+        return pending.done();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: write what was collected, stop() handles the rest
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        // Callers that timed out while queued have already been failed
+        List<Pending> live = batch.stream().filter(pending -> !pending.done().isDone()).toList();
+        if (live.isEmpty()) {
+            return;
+        }
+        batchSizes.record(live.size());
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        for (Pending pending : live) {
+            ops.insert(pending.order());
+        }
+        try {
+            ops.execute();
+            live.forEach(this::acknowledge);
+        } catch (BulkOperationException e) {
+            // Unordered: every insert without an error was written
+            for (BulkWriteError error : e.getErrors()) {
+                Pending pending = live.get(error.getIndex());
+                pending.done().completeExceptionally(new IllegalStateException(
+                        "Could not save order " + pending.order().getOrderId() + ": " + error.getMessage()));
+            }
+            live.forEach(this::acknowledge);
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} orders failed: {}", live.size(), e.getMessage());
+            live.forEach(pending -> pending.done().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Complete a written order; if its caller gave up meanwhile, undo the insert
+     */
+    private void acknowledge(Pending pending) {
+        if (pending.done().complete(null) || !isTimedOut(pending)) {
+            return;
+        }
+        Integer orderId = pending.order().getOrderId();
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("order_id").is(orderId)), Order.class);
+            log.warn("Removed order {} written after its caller timed out", orderId);
+        } catch (RuntimeException e) {
+            log.error("Could not remove timed-out order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private static boolean isTimedOut(Pending pending) {
+        try {
+            pending.done().join();
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof OrderWriteTimeoutException;
+        }
+    }
+
+    private void saveDirectly(Pending pending) {
+        try {
+            orderRepository.save(pending.order());
+            pending.done().complete(null);
+        } catch (RuntimeException e) {
+            pending.done().completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.OutboxCheckpoint;
+import com.dealshare.buddyai.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains outbox events embedded in orders and feedback to the configured {@link OutboxSink}.
+ *
+ * Every poll reads up to app.outbox.batch-size pending events, taking documents in
+ * order of their oldest pending event (outbox_since, through the partial
+ * outbox_pending_since index), publishes them oldest first in one sink call,
+ * records the batch in the sink's checkpoint and then pulls the events from their
+ * documents. If the process dies after publishing but before the pull, the next
+ * poll recognises the batch from the checkpoint and only removes it. Documents left
+ * flagged pending with no events (e.g. by an interrupted acknowledge) are cleared at
+ * the start of each poll so they do not keep taking up the batch.
+ *
+ * Only one instance relays at a time: each poll takes the "outbox_relay_&lt;sink&gt;"
+ * lock for app.outbox.lock-ttl, and other instances skip the poll while it is held.
+ * A poll stops draining once half the TTL has passed, so the lock cannot expire
+ * under a relay that is still publishing.
+ *
+ * Metrics: outbox.relayed (events), outbox.batch.size, outbox.publish (timer)
+ * and outbox.lag (age of the oldest pending event at the last poll).
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private static final List<String> SOURCES = List.of("orders", "feedback");
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxSink sink;
+    private final MongoLockService lockService;
+    private final String lockName;
+    private final Counter relayed;
+    private final DistributionSummary batchSizes;
+    private final Timer publishTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${app.outbox.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${app.outbox.batch-size:500}")
+    private Integer batchSize;
+
+    @Value("${app.outbox.lock-ttl:60s}")
+    private Duration lockTtl;
+
+    private record Pending(String collection, Object documentId, OutboxEvent event) {
+    }
+
+    public OutboxRelay(MongoTemplate mongoTemplate, OutboxSink sink, MongoLockService lockService,
+                       MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.sink = sink;
+        this.lockService = lockService;
+        this.lockName = "outbox_relay_" + sink.name();
+        this.relayed = meterRegistry.counter("outbox.relayed", "sink", sink.name());
+        this.batchSizes = DistributionSummary.builder("outbox.batch.size")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.publishTimer = meterRegistry.timer("outbox.publish", "sink", sink.name());
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!lockService.tryAcquire(lockName, lockTtl)) {
+                log.debug("Outbox relay to {} is running on another instance, skipping", sink.name());
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Could not take the outbox relay lock for {}: {}", sink.name(), e.getMessage());
+            return;
+        }
+        long deadline = System.nanoTime() + lockTtl.toNanos() / 2;
+        try {
+            // Keep draining while batches come back full, within the lock
+            while (relayBatch() >= batchSize && System.nanoTime() < deadline) {
+                log.debug("Outbox backlog remaining, relaying next batch");
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay to {} failed: {}", sink.name(), e.getMessage(), e);
+        } finally {
+            lockService.release(lockName);
+        }
+    }
+
+    private int relayBatch() {
+        List<Pending> pending = readPending();
+        if (pending.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        LocalDateTime oldest = pending.get(0).event().getCreatedAt();
+        lagMillis.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0);
+
+        OutboxCheckpoint checkpoint = mongoTemplate.findById(sink.name(), OutboxCheckpoint.class);
+        Set<String> alreadyPublished = checkpoint != null && checkpoint.getLastBatchIds() != null
+                ? Set.copyOf(checkpoint.getLastBatchIds()) : Set.of();
+        List<OutboxEvent> batch = pending.stream()
+                .map(Pending::event)
+                .filter(event -> !alreadyPublished.contains(event.getEventId()))
+                .toList();
+
+        if (!batch.isEmpty()) {
+            publishTimer.record(() -> {
+                try {
+                    sink.publish(batch);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            saveCheckpoint(batch);
+            relayed.increment(batch.size());
+            batchSizes.record(batch.size());
+        }
+        acknowledge(pending);
+        return pending.size();
+    }
+
+    /**
+     * Oldest pending events across all sources, at most one batch
+     */
+    private List<Pending> readPending() {
+        List<Pending> pending = new ArrayList<>();
+        for (String source : SOURCES) {
+            clearEmpty(source);
+            // Documents written before outbox_since existed have none and sort first
+            Query query = Query.query(Criteria.where("outbox_pending").is(true))
+                    .with(Sort.by(Sort.Direction.ASC, "outbox_since"))
+                    .limit(batchSize);
+            query.fields().include("outbox");
+            for (Document document : mongoTemplate.find(query, Document.class, source)) {
+                List<Document> events = document.getList("outbox", Document.class, List.of());
+                for (Document event : events) {
+                    pending.add(new Pending(source, document.get("_id"),
+                            mongoTemplate.getConverter().read(OutboxEvent.class, event)));
+                }
+            }
+        }
+        pending.sort(Comparator.comparing((Pending p) -> p.event().getCreatedAt(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(p -> p.event().getEventId()));
+        return pending.size() > batchSize ? new ArrayList<>(pending.subList(0, batchSize)) : pending;
+    }
+
+    /**
+     * Drop the pending flag from documents that have no events left to relay
+     */
+    private void clearEmpty(String source) {
+        long cleared = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("outbox_pending").is(true)
+                        .orOperator(Criteria.where("outbox").size(0), Criteria.where("outbox").exists(false))),
+                new Update().unset("outbox").unset("outbox_pending").unset("outbox_since"),
+                source).getModifiedCount();
+        if (cleared > 0) {
+            log.warn("Cleared outbox_pending on {} {} documents with no pending events", cleared, source);
+        }
+    }
+
+    private void saveCheckpoint(List<OutboxEvent> batch) {
+        OutboxEvent last = batch.get(batch.size() - 1);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(sink.name())),
+                new Update()
+                        .set("last_event_id", last.getEventId())
+                        .set("last_created_at", last.getCreatedAt())
+                        .set("last_batch_ids", batch.stream().map(OutboxEvent::getEventId).toList())
+                        .set("updated_at", LocalDateTime.now())
+                        .inc("relayed_total", batch.size()),
+                OutboxCheckpoint.class);
+    }
+
+    /**
+     * Pull relayed events from their documents and clear the pending flag where none are left
+     */
+    private void acknowledge(List<Pending> pending) {
+        Map<String, Map<Object, List<String>>> bySource = new LinkedHashMap<>();
+        for (Pending p : pending) {
+            bySource.computeIfAbsent(p.collection(), c -> new LinkedHashMap<>())
+                    .computeIfAbsent(p.documentId(), id -> new ArrayList<>())
+                    .add(p.event().getEventId());
+        }
+
+        bySource.forEach((collection, documents) -> {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            documents.forEach((documentId, eventIds) -> ops.updateOne(
+                    Query.query(Criteria.where("_id").is(documentId)),
+                    new Update().pull("outbox", new Document("event_id", new Document("$in", eventIds)))));
+            ops.execute();
+
+            // Events pushed after the read keep the flag set
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(documents.keySet()).and("outbox").size(0)),
+                    new Update().unset("outbox").unset("outbox_pending").unset("outbox_since"),
+                    collection);
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Feedback;
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the outbox events embedded in order and feedback writes.
+ * Returns null when app.outbox.enabled is false, so nothing is queued.
+ */
+@Service
+public class OutboxService {
+
+    public static final String ORDER_PLACED = "OrderPlaced";
+    public static final String ORDER_STATUS_CHANGED = "OrderStatusChanged";
+    public static final String FEEDBACK_SUBMITTED = "FeedbackSubmitted";
+
+    @Value("${app.outbox.enabled:true}")
+    private Boolean enabled;
+
+    public OutboxEvent orderPlaced(Order order) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("order_id", order.getOrderId());
+        payload.put("user_id", order.getUserId());
+        payload.put("status", order.getStatus());
+        payload.put("total_amount", order.getTotalAmount());
+        payload.put("item_count", order.getOrderItems() != null ? order.getOrderItems().size() : 0);
+        payload.put("payment_method", order.getPaymentMethod());
+        return event(ORDER_PLACED, order.getOrderId(), payload);
+    }
+
+    public OutboxEvent orderStatusChanged(int orderId, String status, LocalDateTime changedAt) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("order_id", orderId);
+        payload.put("status", status);
+        payload.put("changed_at", changedAt);
+        return event(ORDER_STATUS_CHANGED, orderId, payload);
+    }
+
+    public OutboxEvent feedbackSubmitted(Feedback feedback) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("feedback_id", feedback.getFeedbackId());
+        payload.put("user_id", feedback.getUserId());
+        payload.put("order_id", feedback.getOrderId());
+        payload.put("category", feedback.getCategory());
+        payload.put("rating", feedback.getRating());
+        payload.put("channel", feedback.getChannel());
+        return event(FEEDBACK_SUBMITTED, feedback.getFeedbackId(), payload);
+    }
+
+    private OutboxEvent event(String type, Integer aggregateId, Map<String, Object> payload) {
+        if (!enabled) {
+            return null;
+        }
+        return OutboxEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
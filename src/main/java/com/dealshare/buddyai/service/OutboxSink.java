@@ -0,0 +1,23 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Delivery is at least once: a batch may be
+ * published again after a crash, so consumers should deduplicate on event_id.
+ */
+public interface OutboxSink {
+
+    /**
+     * Name used for the relay checkpoint and metrics
+     */
+    String name();
+
+    /**
+     * Publish a batch in order; return only once it is durable
+     */
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,197 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.BulkItemResultDTO;
+import com.dealshare.buddyai.dto.ProductAttributeUpdateDTO;
+import com.dealshare.buddyai.event.CatalogChangedEvent;
+import com.dealshare.buddyai.model.Product;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies partial product updates as unordered, batched {@code $set} bulk writes.
+ *
+ * Each batch costs two round trips: one projected {@code $in} read to find which
+ * product_ids exist (so missing ones can be reported per item) and one bulk write.
+ * available_stock of hot products is held partly in leases (see HotStockService),
+ * so items setting it are rejected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductBulkUpdateService {
+
+    public static final String STATUS_UPDATED = "updated";
+    public static final String STATUS_NOT_FOUND = "not_found";
+    public static final String STATUS_INVALID = "invalid";
+    public static final String STATUS_FAILED = "failed";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final HotStockService hotStockService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private Integer batchSize;
+
+    /**
+     * Apply the updates in input order and return one result per item
+     */
+    public List<BulkItemResultDTO> applyUpdates(List<ProductAttributeUpdateDTO> updates) {
+        List<BulkItemResultDTO> results = new ArrayList<>(updates.size());
+        int updatedCount = 0;
+        long start = System.currentTimeMillis();
+
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<ProductAttributeUpdateDTO> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+            updatedCount += applyBatch(batch, results);
+        }
+
+        if (updatedCount > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(this, updatedCount + " products bulk updated"));
+        }
+        log.info("Bulk updated {} of {} products in {}ms", updatedCount, updates.size(),
+                System.currentTimeMillis() - start);
+        return results;
+    }
+
+    private int applyBatch(List<ProductAttributeUpdateDTO> batch, List<BulkItemResultDTO> results) {
+        Set<Integer> existing = findExistingIds(batch);
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Index into the bulk request -> index into results, to map write errors back to items
+        List<Integer> queued = new ArrayList<>();
+        for (ProductAttributeUpdateDTO item : batch) {
+            Integer productId = item.getProduct_id();
+            Update update = toUpdate(item);
+            if (productId == null || update == null) {
+                results.add(result(productId, STATUS_INVALID, "product_id and at least one field are required"));
+                continue;
+            }
+            String negative = negativeField(item);
+            if (negative != null) {
+                results.add(result(productId, STATUS_INVALID, negative + " must not be negative"));
+                continue;
+            }
+            if (item.getAvailable_stock() != null && hotStockService.isHot(productId)) {
+                results.add(result(productId, STATUS_INVALID, "available_stock of a hot stock product cannot be set in bulk"));
+                continue;
+            }
+            if (!existing.contains(productId)) {
+                results.add(result(productId, STATUS_NOT_FOUND, null));
+                continue;
+            }
+            ops.updateOne(Query.query(Criteria.where("product_id").is(productId)), update.set("updated_at", now));
+            queued.add(results.size());
+            results.add(result(productId, STATUS_UPDATED, null));
+        }
+
+        if (queued.isEmpty()) {
+            return 0;
+        }
+
+        int failed = 0;
+        try {
+            ops.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                BulkItemResultDTO item = results.get(queued.get(error.getIndex()));
+                item.setStatus(STATUS_FAILED);
+                item.setError(error.getMessage());
+                failed++;
+            }
+        }
+
+        List<Integer> touched = new ArrayList<>(queued.size());
+        for (int index : queued) {
+            touched.add(results.get(index).getProduct_id());
+        }
+        productCache.invalidateAll(touched);
+
+        return queued.size() - failed;
+    }
+
+    private Set<Integer> findExistingIds(List<ProductAttributeUpdateDTO> batch) {
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (ProductAttributeUpdateDTO item : batch) {
+            if (item.getProduct_id() != null) {
+                ids.add(item.getProduct_id());
+            }
+        }
+        Query query = Query.query(Criteria.where("product_id").in(ids));
+        query.fields().include("product_id");
+
+        Set<Integer> existing = new HashSet<>();
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            existing.add(product.getProductId());
+        }
+        return existing;
+    }
+
+    /**
+     * Build a $set for the non-null fields, or null if there is nothing to write
+     */
+    private Update toUpdate(ProductAttributeUpdateDTO item) {
+        Update update = new Update();
+        boolean any = false;
+        any |= setIfPresent(update, "product_name", item.getProduct_name());
+        any |= setIfPresent(update, "brand", item.getBrand());
+        any |= setIfPresent(update, "category", item.getCategory());
+        any |= setIfPresent(update, "price", item.getPrice());
+        any |= setIfPresent(update, "discounted_price", item.getDiscounted_price());
+        any |= setIfPresent(update, "available_stock", item.getAvailable_stock());
+        any |= setIfPresent(update, "image_url", item.getImage_url());
+        any |= setIfPresent(update, "description", item.getDescription());
+        any |= setIfPresent(update, "rating", item.getRating());
+        any |= setIfPresent(update, "is_popular", item.getIs_popular());
+        return any ? update : null;
+    }
+
+    /**
+     * First stock or price field that is negative (or not a number), same rule as inventory imports
+     */
+    private static String negativeField(ProductAttributeUpdateDTO item) {
+        if (item.getAvailable_stock() != null && item.getAvailable_stock() < 0) {
+            return "available_stock";
+        }
+        if (item.getPrice() != null && (item.getPrice() < 0 || item.getPrice().isNaN())) {
+            return "price";
+        }
+        if (item.getDiscounted_price() != null && (item.getDiscounted_price() < 0 || item.getDiscounted_price().isNaN())) {
+            return "discounted_price";
+        }
+        return null;
+    }
+
+    private boolean setIfPresent(Update update, String field, Object value) {
+        if (value == null) {
+            return false;
+        }
+        update.set(field, value);
+        return true;
+    }
+
+    private BulkItemResultDTO result(Integer productId, String status, String error) {
+        return BulkItemResultDTO.builder()
+                .product_id(productId)
+                .status(status)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Product;
+import com.dealshare.buddyai.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Bounded read-through cache for single-product lookups.
+ *
+ * Caffeine runs the loader at most once per key, so a cold popular product
+ * triggers a single Mongo read while concurrent callers wait for it.
+ * Any code that writes product documents must call {@link #invalidate}.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<Integer, Product> byProductId;
+    private final Cache<String, Integer> productIdBySku;
+
+    public ProductCache(ProductRepository productRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.product-cache.max-size:10000}") long maxSize,
+                        @Value("${app.product-cache.ttl:10m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.byProductId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // SKU codes never change for a product, so this only maps sku -> product_id
+        this.productIdBySku = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byProductId, "products.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, productIdBySku, "products.by-sku");
+    }
+
+    /**
+     * Product by product_id, or null if it does not exist (misses are not cached)
+     */
+    public Product get(Integer productId) {
+        if (productId == null) {
+            return null;
+        }
+        return byProductId.get(productId, productRepository::findByProductId);
+    }
+
+    /**
+     * Product by sku_code, or null if it does not exist
+     */
+    public Product getBySku(String skuCode) {
+        if (skuCode == null || skuCode.isBlank()) {
+            return null;
+        }
+        Integer productId = productIdBySku.get(skuCode, sku -> {
+            Product product = productRepository.findBySkuCode(sku);
+            if (product == null) {
+                return null;
+            }
+            byProductId.put(product.getProductId(), product);
+            return product.getProductId();
+        });
+        return productId != null ? get(productId) : null;
+    }
+
+    public void invalidate(Integer productId) {
+        if (productId != null) {
+            byProductId.invalidate(productId);
+        }
+    }
+
+    public void invalidateAll(Collection<Integer> productIds) {
+        byProductId.invalidateAll(productIds);
+    }
+
+    public void clear() {
+        byProductId.invalidateAll();
+        productIdBySku.invalidateAll();
+        log.info("Product cache cleared");
+    }
+}
@@ -1,80 +1,89 @@
 package com.dealshare.buddyai.service;
 
+import com.dealshare.buddyai.dto.BulkItemResultDTO;
+import com.dealshare.buddyai.dto.CursorPageDTO;
+import com.dealshare.buddyai.dto.ProductAttributeUpdateDTO;
 import com.dealshare.buddyai.dto.ProductDetailsDTO;
+import com.dealshare.buddyai.dto.ProductTileDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.model.Product;
-import com.dealshare.buddyai.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
-    private final ProductRepository productRepository;
     private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final ProductBulkUpdateService productBulkUpdateService;
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private static final String DEFAULT_IMAGE_URL =
+            "https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400&h=400&fit=crop";
+
+    // Everything a product tile renders; description is deliberately left out
+    private static final String[] TILE_FIELDS = {
+            "product_id", "product_name", "brand", "category", "price", "discounted_price",
+            "available_stock", "sku_code", "image_url", "rating", "is_popular"
+    };
+
+    @Value("${app.catalog.page-size:50}")
+    private Integer defaultPageSize;
+
+    @Value("${app.catalog.max-page-size:200}")
+    private Integer maxPageSize;
 
     /**
-     * Search products with filters
+     * Search products with filters, one keyset page at a time (ordered by product_id).
+     * Reads only the tile fields, so long descriptions are never decoded.
      */
-    public ResponseDTO<List<ProductDetailsDTO>> searchProducts(
+    public ResponseDTO<CursorPageDTO<ProductTileDTO>> searchProducts(
             String keyword, 
             String category,
             Double minPrice,
-            Double maxPrice
+            Double maxPrice,
+            String after,
+            Integer limit
     ) {
         try {
-            Query query = new Query();
-            
-            // Keyword search (product_name, brand, description)
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                Criteria keywordCriteria = new Criteria().orOperator(
-                    Criteria.where("product_name").regex(keyword, "i"),
-                    Criteria.where("brand").regex(keyword, "i"),
-                    Criteria.where("description").regex(keyword, "i")
-                );
-                query.addCriteria(keywordCriteria);
-            }
-            
-            // Category filter
-            if (category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category)) {
-                query.addCriteria(Criteria.where("category").is(category));
-            }
-            
-            // Price range filter
-            if (minPrice != null) {
-                query.addCriteria(Criteria.where("price").gte(minPrice));
-            }
-            if (maxPrice != null) {
-                query.addCriteria(Criteria.where("price").lte(maxPrice));
-            }
-            
-            List<Product> products = mongoTemplate.find(query, Product.class);
-            List<ProductDetailsDTO> productDTOs = products.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            Query query = buildSearchQuery(keyword, category, minPrice, maxPrice);
+            query.fields().include(TILE_FIELDS);
+            CursorPageDTO<ProductTileDTO> page = findPage(query, after, limit, ProductTileDTO.class,
+                    ProductTileDTO::getProduct_id, this::applyTileDefaults);
             
-            log.info("Found {} products matching search criteria", productDTOs.size());
+            log.info("Found {} products matching search criteria", page.getItems().size());
             
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            return ResponseDTO.<CursorPageDTO<ProductTileDTO>>builder()
                     .success(true)
-                    .message("Found " + productDTOs.size() + " product(s)")
-                    .data(productDTOs)
+                    .message("Found " + page.getItems().size() + " product(s)")
+                    .data(page)
                     .build();
                     
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error searching products", e);
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            return ResponseDTO.<CursorPageDTO<ProductTileDTO>>builder()
                     .success(false)
                     .message("Error searching products: " + e.getMessage())
                     .data(null)
@@ -83,11 +92,11 @@ public class ProductService {
     }
 
     /**
-     * Get product by ID
+     * Get product by ID (read-through cache)
      */
     public ResponseDTO<ProductDetailsDTO> getProductById(Integer productId) {
         try {
-            Product product = productRepository.findByProductId(productId);
+            Product product = productCache.get(productId);
             
             if (product == null) {
                 return ResponseDTO.<ProductDetailsDTO>builder()
@@ -114,93 +123,236 @@ public class ProductService {
     }
 
     /**
-     * Get all products
+     * Get product by SKU code (read-through cache)
      */
-    public ResponseDTO<List<ProductDetailsDTO>> getAllProducts() {
+    public ResponseDTO<ProductDetailsDTO> getProductBySku(String skuCode) {
         try {
-            List<Product> products = productRepository.findAll();
-            List<ProductDetailsDTO> productDTOs = products.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            Product product = productCache.getBySku(skuCode);
             
-            log.info("Retrieved {} total products", productDTOs.size());
+            if (product == null) {
+                return ResponseDTO.<ProductDetailsDTO>builder()
+                        .success(false)
+                        .message("Product not found with SKU: " + skuCode)
+                        .data(null)
+                        .build();
+            }
             
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            return ResponseDTO.<ProductDetailsDTO>builder()
                     .success(true)
-                    .message("Retrieved " + productDTOs.size() + " product(s)")
-                    .data(productDTOs)
+                    .message("Product found")
+                    .data(convertToDTO(product))
                     .build();
                     
         } catch (Exception e) {
-            log.error("Error fetching all products", e);
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            log.error("Error fetching product by SKU", e);
+            return ResponseDTO.<ProductDetailsDTO>builder()
                     .success(false)
-                    .message("Error fetching products: " + e.getMessage())
+                    .message("Error fetching product: " + e.getMessage())
                     .data(null)
                     .build();
         }
     }
 
     /**
-     * Get product recommendations
+     * Get all products, one keyset page at a time (ordered by product_id)
      */
-    public ResponseDTO<List<ProductDetailsDTO>> getRecommendations(Integer limit) {
+    public ResponseDTO<CursorPageDTO<ProductDetailsDTO>> getAllProducts(String after, Integer limit) {
         try {
-            Query query = new Query();
-            query.addCriteria(Criteria.where("is_popular").is(true));
-            query.limit(limit != null ? limit : 10);
+            CursorPageDTO<ProductDetailsDTO> page = findPage(new Query(), after, limit, Product.class,
+                    Product::getProductId, this::convertToDTO);
             
-            List<Product> products = mongoTemplate.find(query, Product.class);
-            List<ProductDetailsDTO> productDTOs = products.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            log.info("Retrieved {} products", page.getItems().size());
             
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            return ResponseDTO.<CursorPageDTO<ProductDetailsDTO>>builder()
                     .success(true)
-                    .message("Retrieved " + productDTOs.size() + " recommendation(s)")
-                    .data(productDTOs)
+                    .message("Retrieved " + page.getItems().size() + " product(s)")
+                    .data(page)
                     .build();
                     
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error fetching recommendations", e);
-            return ResponseDTO.<List<ProductDetailsDTO>>builder()
+            log.error("Error fetching all products", e);
+            return ResponseDTO.<CursorPageDTO<ProductDetailsDTO>>builder()
                     .success(false)
-                    .message("Error fetching recommendations: " + e.getMessage())
+                    .message("Error fetching products: " + e.getMessage())
                     .data(null)
                     .build();
         }
     }
 
     /**
-     * Update product images in bulk
+     * Stream matching products as NDJSON straight from a Mongo cursor.
+     * Only one batch of documents is held in memory at a time.
      */
-    public ResponseDTO<String> updateProductImages(Map<Integer, String> imageMappings) {
-        try {
-            int updatedCount = 0;
-            for (Map.Entry<Integer, String> entry : imageMappings.entrySet()) {
-                Product product = productRepository.findByProductId(entry.getKey());
-                if (product != null) {
-                    product.setImageUrl(entry.getValue());
-                    product.setUpdatedAt(LocalDateTime.now());
-                    productRepository.save(product);
-                    updatedCount++;
+    public void streamProducts(String keyword, String category, Double minPrice, Double maxPrice,
+                               OutputStream out) throws IOException {
+        Query query = buildSearchQuery(keyword, category, minPrice, maxPrice)
+                .with(Sort.by(Sort.Direction.ASC, "product_id"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+
+        int count = 0;
+        try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(convertToDTO(iterator.next())));
+                out.write('\n');
+                if (++count % STREAM_BATCH_SIZE == 0) {
+                    out.flush();
                 }
             }
-            return ResponseDTO.<String>builder()
+        }
+        out.flush();
+        log.info("Streamed {} products as NDJSON", count);
+    }
+
+    /**
+     * Load the popular-products list that backs the recommendation snapshot
+     */
+    public List<ProductDetailsDTO> loadRecommendations(int maxCount) {
+        Query query = new Query();
+        query.addCriteria(Criteria.where("is_popular").is(true));
+        query.with(Sort.by(Sort.Direction.DESC, "rating").and(Sort.by(Sort.Direction.ASC, "product_id")));
+        query.limit(maxCount);
+        
+        return mongoTemplate.find(query, Product.class).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Update product images in bulk
+     */
+    public ResponseDTO<List<BulkItemResultDTO>> updateProductImages(Map<Integer, String> imageMappings) {
+        List<ProductAttributeUpdateDTO> updates = imageMappings.entrySet().stream()
+                .map(entry -> ProductAttributeUpdateDTO.builder()
+                        .product_id(entry.getKey())
+                        .image_url(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+        return bulkUpdate(updates);
+    }
+
+    /**
+     * Apply partial attribute updates in batched bulk writes, with a result per item
+     */
+    public ResponseDTO<List<BulkItemResultDTO>> bulkUpdate(List<ProductAttributeUpdateDTO> updates) {
+        try {
+            List<BulkItemResultDTO> results = productBulkUpdateService.applyUpdates(updates);
+            long updatedCount = results.stream()
+                    .filter(r -> ProductBulkUpdateService.STATUS_UPDATED.equals(r.getStatus()))
+                    .count();
+            return ResponseDTO.<List<BulkItemResultDTO>>builder()
                     .success(true)
-                    .message("Updated images for " + updatedCount + " products")
-                    .data("Success")
+                    .message("Updated " + updatedCount + " of " + results.size() + " products")
+                    .data(results)
                     .build();
         } catch (Exception e) {
-            log.error("Error updating product images", e);
-            return ResponseDTO.<String>builder()
+            log.error("Error bulk updating products", e);
+            return ResponseDTO.<List<BulkItemResultDTO>>builder()
                     .success(false)
-                    .message("Error updating product images: " + e.getMessage())
+                    .message("Error updating products: " + e.getMessage())
                     .data(null)
                     .build();
         }
     }
 
+    private Query buildSearchQuery(String keyword, String category, Double minPrice, Double maxPrice) {
+        Query query = new Query();
+        
+        // Keyword search (product_name, brand, description)
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            Criteria keywordCriteria = new Criteria().orOperator(
+                Criteria.where("product_name").regex(keyword, "i"),
+                Criteria.where("brand").regex(keyword, "i"),
+                Criteria.where("description").regex(keyword, "i")
+            );
+            query.addCriteria(keywordCriteria);
+        }
+        
+        // Category filter
+        if (category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category)) {
+            query.addCriteria(Criteria.where("category").is(category));
+        }
+        
+        // Price range filter (both bounds on one criteria, Mongo rejects duplicate keys)
+        if (minPrice != null || maxPrice != null) {
+            Criteria priceCriteria = Criteria.where("price");
+            if (minPrice != null) {
+                priceCriteria = priceCriteria.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                priceCriteria = priceCriteria.lte(maxPrice);
+            }
+            query.addCriteria(priceCriteria);
+        }
+        
+        return query;
+    }
+
+    /**
+     * Fetch one page after the given product_id cursor; reads limit + 1 to detect a next page
+     *
+     * @throws IllegalArgumentException if the cursor is not a product_id
+     */
+    private <T, R> CursorPageDTO<R> findPage(Query query, String after, Integer limit, Class<T> type,
+                                             Function<T, Integer> cursorOf, Function<T, R> mapper) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        
+        if (after != null && !after.isBlank()) {
+            query.addCriteria(Criteria.where("product_id").gt(parseCursor(after)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "product_id"));
+        query.limit(pageSize + 1);
+        
+        List<T> results = mongoTemplate.find(query, type, mongoTemplate.getCollectionName(Product.class));
+        boolean hasMore = results.size() > pageSize;
+        if (hasMore) {
+            results = results.subList(0, pageSize);
+        }
+        
+        List<R> items = results.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? String.valueOf(cursorOf.apply(results.get(results.size() - 1))) : null;
+        
+        return CursorPageDTO.<R>builder()
+                .items(items)
+                .next_cursor(nextCursor)
+                .has_more(hasMore)
+                .build();
+    }
+
+    private static int parseCursor(String after) {
+        try {
+            return Integer.parseInt(after.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+    }
+
+    /**
+     * Fill the same defaults convertToDTO applies to full product details
+     */
+    private ProductTileDTO applyTileDefaults(ProductTileDTO tile) {
+        if (tile.getCategory() == null) {
+            tile.setCategory("General");
+        }
+        if (tile.getAvailable_stock() == null) {
+            tile.setAvailable_stock(0);
+        }
+        if (tile.getImage_url() == null) {
+            tile.setImage_url(DEFAULT_IMAGE_URL);
+        }
+        if (tile.getRating() == null) {
+            tile.setRating(4.5);
+        }
+        if (tile.getIs_popular() == null) {
+            tile.setIs_popular(false);
+        }
+        return tile;
+    }
+
     /**
      * Convert Product entity to DTO
      */
@@ -214,14 +366,10 @@ public class ProductService {
                 .discounted_price(product.getDiscountedPrice())
                 .available_stock(product.getAvailableStock() != null ? product.getAvailableStock() : 0)
                 .sku_code(product.getSkuCode())
-                .image_url(product.getImageUrl() != null ? product.getImageUrl() : 
-                    "https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400&h=400&fit=crop")
+                .image_url(product.getImageUrl() != null ? product.getImageUrl() : DEFAULT_IMAGE_URL)
                 .description(product.getDescription())
                 .rating(product.getRating() != null ? product.getRating() : 4.5)
                 .is_popular(product.getIsPopular() != null ? product.getIsPopular() : false)
                 .build();
     }
 }
-
-
-
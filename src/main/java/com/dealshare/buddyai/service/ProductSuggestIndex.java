@@ -0,0 +1,215 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.ProductSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie over product names and brands.
+ *
+ * Every word start of a name or brand is indexed, so "tom" matches "Fresh Tomatoes".
+ * Entries must be added in descending rank order; each node then keeps the first
+ * {@code topK} distinct products that reach it, which makes a lookup a walk of
+ * at most {@link #MAX_DEPTH} nodes plus a copy of the precomputed top list.
+ */
+public final class ProductSuggestIndex {
+
+    /** Keys are truncated at this depth; longer queries are filtered against the deepest node. */
+    static final int MAX_DEPTH = 24;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    private final ProductSuggestionDTO[] suggestions;
+    private final String[] searchText;
+
+    private ProductSuggestIndex(Node root, ProductSuggestionDTO[] suggestions, String[] searchText) {
+        this.root = root;
+        this.suggestions = suggestions;
+        this.searchText = searchText;
+    }
+
+    public static ProductSuggestIndex empty() {
+        return new ProductSuggestIndex(new Node(NO_KEYS, NO_CHILDREN, new int[0]), new ProductSuggestionDTO[0], new String[0]);
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * Return up to {@code limit} ranked suggestions for a typed prefix
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Node node = root;
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+
+        boolean truncated = key.length() > MAX_DEPTH;
+        List<ProductSuggestionDTO> result = new ArrayList<>(Math.min(limit, node.top.length));
+        for (int idx : node.top) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (truncated && !matchesWordPrefix(searchText[idx], key)) {
+                continue;
+            }
+            result.add(suggestions[idx]);
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean matchesWordPrefix(String text, String key) {
+        int from = 0;
+        while (from >= 0 && from < text.length()) {
+            if (text.startsWith(key, from)) {
+                return true;
+            }
+            int space = text.indexOf(' ', from);
+            from = space < 0 ? -1 : space + 1;
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] keys, Node[] children, int[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+    }
+
+    /**
+     * Mutable builder; call {@link #add} in descending rank order, then {@link #build}
+     */
+    public static final class Builder {
+        private final int topK;
+        private final MutableNode root = new MutableNode();
+        private final List<ProductSuggestionDTO> suggestions = new ArrayList<>();
+        private final List<String> searchText = new ArrayList<>();
+
+        public Builder(int topK) {
+            this.topK = topK;
+        }
+
+        public Builder add(ProductSuggestionDTO suggestion) {
+            int idx = suggestions.size();
+            suggestions.add(suggestion);
+
+            String name = normalize(suggestion.getProduct_name());
+            String brand = normalize(suggestion.getBrand());
+            String text = brand.isEmpty() ? name : name + " " + brand;
+            searchText.add(text);
+
+            insertWordStarts(name, idx);
+            insertWordStarts(brand, idx);
+            return this;
+        }
+
+        private void insertWordStarts(String text, int idx) {
+            if (text.isEmpty()) {
+                return;
+            }
+            int from = 0;
+            while (from >= 0) {
+                insert(text, from, idx);
+                int space = text.indexOf(' ', from);
+                from = space < 0 ? -1 : space + 1;
+            }
+        }
+
+        private void insert(String text, int start, int idx) {
+            MutableNode node = root;
+            int end = Math.min(text.length(), start + MAX_DEPTH);
+            for (int i = start; i < end; i++) {
+                node = node.children.computeIfAbsent(text.charAt(i), c -> new MutableNode());
+                node.offer(idx, topK);
+            }
+        }
+
+        public ProductSuggestIndex build() {
+            return new ProductSuggestIndex(
+                    root.freeze(),
+                    suggestions.toArray(new ProductSuggestionDTO[0]),
+                    searchText.toArray(new String[0]));
+        }
+    }
+
+    private static final class MutableNode {
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private int[] top = new int[0];
+
+        private void offer(int idx, int topK) {
+            if (top.length >= topK) {
+                return;
+            }
+            // Products arrive in rank order, so a repeat can only be the last one added
+            if (top.length > 0 && top[top.length - 1] == idx) {
+                return;
+            }
+            top = Arrays.copyOf(top, top.length + 1);
+            top[top.length - 1] = idx;
+        }
+
+        private Node freeze() {
+            if (children.isEmpty()) {
+                return new Node(NO_KEYS, NO_CHILDREN, top);
+            }
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, frozen, top);
+        }
+    }
+}
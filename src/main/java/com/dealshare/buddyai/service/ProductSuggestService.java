@@ -0,0 +1,140 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.ProductSuggestionDTO;
+import com.dealshare.buddyai.dto.ResponseDTO;
+import com.dealshare.buddyai.event.CatalogChangedEvent;
+import com.dealshare.buddyai.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead suggestions served from an in-memory prefix trie.
+ * The index is rebuilt off the request path and swapped in atomically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSuggestService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.suggest.max-results:10}")
+    private Integer maxResults;
+
+    private volatile ProductSuggestIndex index = ProductSuggestIndex.empty();
+
+    /**
+     * Suggest products whose name or brand has a word starting with the prefix
+     */
+    public ResponseDTO<List<ProductSuggestionDTO>> suggest(String prefix, Integer limit) {
+        int effectiveLimit = limit == null || limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        List<ProductSuggestionDTO> suggestions = index.suggest(prefix, effectiveLimit);
+        return ResponseDTO.<List<ProductSuggestionDTO>>builder()
+                .success(true)
+                .message("Found " + suggestions.size() + " suggestion(s)")
+                .data(suggestions)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Rebuilding product suggestion index: {}", event.getReason());
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.refresh-interval-ms:300000}",
+            initialDelayString = "${app.suggest.refresh-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the suggestion index from the catalog; keeps the previous index on failure
+     */
+    public void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+
+            Query query = new Query();
+            query.fields()
+                    .include("product_id", "product_name", "brand", "category",
+                            "discounted_price", "image_url", "rating", "is_popular");
+            List<Product> products = mongoTemplate.find(query, Product.class);
+            Map<Integer, Long> orderCounts = loadOrderCounts();
+
+            products.sort(Comparator.comparingDouble((Product p) -> score(p, orderCounts)).reversed());
+
+            ProductSuggestIndex.Builder builder = new ProductSuggestIndex.Builder(maxResults);
+            for (Product product : products) {
+                if (product.getProductName() == null) {
+                    continue;
+                }
+                builder.add(ProductSuggestionDTO.builder()
+                        .product_id(product.getProductId())
+                        .product_name(product.getProductName())
+                        .brand(product.getBrand())
+                        .category(product.getCategory() != null ? product.getCategory() : "General")
+                        .discounted_price(product.getDiscountedPrice())
+                        .image_url(product.getImageUrl())
+                        .build());
+            }
+            index = builder.build();
+
+            log.info("Rebuilt product suggestion index with {} products in {}ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding product suggestion index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rank by order volume first, then rating, with a boost for popular products
+     */
+    private double score(Product product, Map<Integer, Long> orderCounts) {
+        long orders = orderCounts.getOrDefault(product.getProductId(), 0L);
+        double rating = product.getRating() != null ? product.getRating() : 0.0;
+        boolean popular = Boolean.TRUE.equals(product.getIsPopular());
+        return Math.log1p(orders) * 2.0 + rating + (popular ? 1.5 : 0.0);
+    }
+
+    private Map<Integer, Long> loadOrderCounts() {
+        Map<Integer, Long> counts = new HashMap<>();
+        try {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.unwind("order_items"),
+                    Aggregation.group("order_items.product_id").sum("order_items.quantity").as("count")
+            );
+            for (Document doc : mongoTemplate.aggregate(aggregation, "orders", Document.class)) {
+                Object id = doc.get("_id");
+                Object count = doc.get("count");
+                if (id instanceof Number && count instanceof Number) {
+                    counts.put(((Number) id).intValue(), ((Number) count).longValue());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not load order counts for suggestion ranking: {}", e.getMessage());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,124 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.ProductDetailsDTO;
+import com.dealshare.buddyai.dto.ResponseDTO;
+import com.dealshare.buddyai.event.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves recommendations from an immutable, periodically refreshed snapshot.
+ *
+ * The list is the same for every user, so it is loaded once per refresh and
+ * each requested page size is serialised once into JSON bytes with an ETag.
+ * Requests never touch Mongo once the first snapshot exists.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.recommendations.snapshot-size:50}")
+    private Integer snapshotSize;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Pre-serialised response body and its ETag
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Rendered {
+        private final byte[] body;
+        private final String etag;
+    }
+
+    private static final class Snapshot {
+        private final List<ProductDetailsDTO> products;
+        private final Map<Integer, Rendered> rendered = new ConcurrentHashMap<>();
+
+        private Snapshot(List<ProductDetailsDTO> products) {
+            this.products = products;
+        }
+    }
+
+    /**
+     * Render the first {@code limit} recommendations from the current snapshot
+     */
+    public Rendered render(Integer limit) {
+        Snapshot current = snapshot != null ? snapshot : refreshIfMissing();
+        int size = Math.max(0, Math.min(limit != null ? limit : 10, current.products.size()));
+        return current.rendered.computeIfAbsent(size, n -> serialize(current.products.subList(0, n)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Refreshing recommendation snapshot: {}", event.getReason());
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.refresh-interval-ms:60000}",
+            initialDelayString = "${app.recommendations.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Reload the snapshot from Mongo; keeps the previous snapshot on failure
+     */
+    public void refresh() {
+        try {
+            List<ProductDetailsDTO> products = productService.loadRecommendations(snapshotSize);
+            snapshot = new Snapshot(List.copyOf(products));
+            log.info("Refreshed recommendation snapshot with {} products", products.size());
+        } catch (Exception e) {
+            log.error("Error refreshing recommendation snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized Snapshot refreshIfMissing() {
+        if (snapshot == null) {
+            refresh();
+        }
+        return snapshot != null ? snapshot : new Snapshot(List.of());
+    }
+
+    private Rendered serialize(List<ProductDetailsDTO> products) {
+        ResponseDTO<List<ProductDetailsDTO>> response = ResponseDTO.<List<ProductDetailsDTO>>builder()
+                .success(true)
+                .message("Retrieved " + products.size() + " recommendation(s)")
+                .data(products)
+                .build();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new Rendered(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise recommendations", e);
+        }
+    }
+}
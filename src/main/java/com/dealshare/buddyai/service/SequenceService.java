@@ -0,0 +1,134 @@
+package com.dealshare.buddyai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Unique, increasing IDs backed by the "counters" collection.
+ *
+ * Uses hi/lo allocation: each findAndModify {@code $inc} reserves a block of
+ * app.sequences.block-size IDs, which are then handed out from memory with a
+ * lock-free increment. Only the thread that exhausts a block talks to Mongo.
+ * IDs are unique across instances; unused IDs in a block are lost on restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SequenceService {
+
+    private static final String COUNTERS = "counters";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.sequences.block-size:50}")
+    private Integer blockSize;
+
+    @Value("${app.sequences.min-int-headroom:1000000}")
+    private Long minIntHeadroom;
+
+    private final Map<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
+    private static final class Block {
+        private static final Block EXHAUSTED = new Block(1, 0);
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+
+    /**
+     * Next ID in the sequence.
+     *
+     * @param floor the highest ID already in use before this sequence existed (e.g. legacy
+     *              max order_id); read once per process and applied with {@code $max}
+     */
+    public long next(String sequence, LongSupplier floor) {
+        AtomicReference<Block> ref = blocks.computeIfAbsent(sequence, name -> {
+            ensureFloor(name, floor.getAsLong());
+            return new AtomicReference<>(Block.EXHAUSTED);
+        });
+        while (true) {
+            Block block = ref.get();
+            long id = block.next.getAndIncrement();
+            if (id <= block.last) {
+                return id;
+            }
+            synchronized (ref) {
+                if (ref.get() == block) {
+                    ref.set(allocateBlock(sequence));
+                }
+            }
+        }
+    }
+
+    /**
+     * Next ID of a sequence stored in an int field
+     *
+     * @throws IllegalStateException once the sequence has passed Integer.MAX_VALUE
+     */
+    public int nextInt(String sequence, LongSupplier floor) {
+        long id = next(sequence, floor);
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Sequence " + sequence + " is exhausted: " + id + " does not fit in an int");
+        }
+        return (int) id;
+    }
+
+    /**
+     * Fail at startup rather than on every write when an int sequence, seeded from legacy IDs,
+     * has fewer than app.sequences.min-int-headroom IDs left before Integer.MAX_VALUE.
+     * Only meaningful for sequences whose legacy IDs were dense too (orders); a floor taken
+     * from scattered IDs says nothing about how many are actually free.
+     *
+     * @throws IllegalStateException if the sequence is too close to overflowing
+     */
+    public void requireIntHeadroom(String sequence, LongSupplier floor) {
+        ensureFloor(sequence, floor.getAsLong());
+        Document counter = mongoTemplate.findById(sequence, Document.class, COUNTERS);
+        long current = counter != null && counter.get("seq") instanceof Number seq ? seq.longValue() : 0;
+        long remaining = Integer.MAX_VALUE - current;
+        if (remaining < minIntHeadroom) {
+            throw new IllegalStateException("Sequence " + sequence + " is at " + current + ", only " + remaining
+                    + " IDs left before Integer.MAX_VALUE; renumber the collection or lower the counter in \""
+                    + COUNTERS + "\" before starting");
+        }
+        log.debug("Sequence {} at {}, {} IDs of int headroom", sequence, current, remaining);
+    }
+
+    private void ensureFloor(String sequence, long floor) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(sequence)),
+                new Update().max("seq", floor),
+                COUNTERS);
+    }
+
+    private Block allocateBlock(String sequence) {
+        Document counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sequence)),
+                new Update().inc("seq", blockSize),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                COUNTERS);
+        long last = ((Number) counter.get("seq")).longValue();
+        log.debug("Allocated {} block {}..{}", sequence, last - blockSize + 1, last);
+        return new Block(last - blockSize + 1, last);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dealshare.buddyai.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for listings sorted newest first by a timestamp with an integer
+ * ID as tie-breaker. Encoded as an opaque base64 token of "&lt;epoch millis&gt;:&lt;id&gt;";
+ * millisecond precision matches what Mongo stores for dates. Legacy documents
+ * without a timestamp sort after all dated ones; their cursor has an empty time
+ * ("&lt;empty&gt;:&lt;id&gt;") and a null {@link #time()}.
+ */
+record TimeIdCursor(LocalDateTime time, int id) {
+
+    String encode() {
+        String millis = time == null ? "" : String.valueOf(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        String raw = millis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is not a cursor
+     */
+    static TimeIdCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String millis = raw.substring(0, separator);
+            int id = Integer.parseInt(raw.substring(separator + 1));
+            LocalDateTime time = millis.isEmpty() ? null
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZoneId.systemDefault());
+            return new TimeIdCursor(time, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
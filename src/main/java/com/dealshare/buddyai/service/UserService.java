@@ -1,28 +1,87 @@
 package com.dealshare.buddyai.service;
 
+import com.dealshare.buddyai.dto.ProfileDTO;
 import com.dealshare.buddyai.dto.ResponseDTO;
 import com.dealshare.buddyai.model.User;
 import com.dealshare.buddyai.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * User profiles for the storefront.
+ *
+ * GET /api/profile/{userId} is served from a bounded near-cache of pre-serialised
+ * response bytes with an ETag, so a page load for a warm profile does no Mongo
+ * read and no JSON serialisation. Entries expire after app.profile.cache-ttl; a
+ * profile write path should call {@link #invalidate} so this instance serves the
+ * change at once (other instances catch up within the TTL). GET /api/profile
+ * still returns app.default.user-id for local development.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Integer, Rendered> profiles;
 
     @Value("${app.default.user-id:1}")
     private Integer defaultUserId;
 
+    /**
+     * Pre-serialised response body and its ETag
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Rendered {
+        private final byte[] body;
+        private final String etag;
+    }
+
+    public UserService(UserRepository userRepository,
+                       ObjectMapper objectMapper,
+                       @Value("${app.profile.cache-size:10000}") long cacheSize,
+                       @Value("${app.profile.cache-ttl:5m}") Duration cacheTtl) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Rendered profile of a user; empty if the user does not exist (misses are not cached)
+     */
+    public Optional<Rendered> renderProfile(int userId) {
+        // Loads run inside the cache, so an update's invalidate waits for an in-flight load instead of racing it
+        return Optional.ofNullable(profiles.get(userId, id -> userRepository.findByUserId(id)
+                .map(user -> serialize(toProfile(user)))
+                .orElse(null)));
+    }
+
+    /**
+     * Drop the cached profile after the user document changed
+     */
+    public void invalidate(int userId) {
+        profiles.invalidate(userId);
+    }
+
     public ResponseDTO<Map<String, Object>> getProfile() {
         try {
             Optional<User> userOpt = userRepository.findByUserId(defaultUserId);
@@ -50,10 +109,30 @@ public class UserService {
             return new ResponseDTO<>(false, "Failed to fetch profile: " + e.getMessage(), null);
         }
     }
-}
-
-
-
-
 
+    private ProfileDTO toProfile(User user) {
+        return ProfileDTO.builder()
+                .user_id(user.getUserId())
+                .name(user.getFullName())
+                .phone(user.getPhoneNumber())
+                .email(user.getEmail())
+                .address(user.getAddress())
+                .city(user.getCity())
+                .pincode(user.getPincode())
+                .build();
+    }
 
+    private Rendered serialize(ProfileDTO profile) {
+        ResponseDTO<ProfileDTO> response = ResponseDTO.<ProfileDTO>builder()
+                .success(true)
+                .message("Profile retrieved successfully")
+                .data(profile)
+                .build();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new Rendered(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise profile " + profile.getUser_id(), e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dealshare.buddyai.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    private static final String ETAG = "\"5d41402abc4b2a76\"";
+
+    @Test
+    void matchesExactTag() {
+        assertThat(ETags.matches(ETAG, ETAG)).isTrue();
+    }
+
+    @Test
+    void matchesWeakTag() {
+        assertThat(ETags.matches("W/" + ETAG, ETAG)).isTrue();
+    }
+
+    @Test
+    void matchesAnyTagInList() {
+        assertThat(ETags.matches("\"other\", W/" + ETAG + ",\"third\"", ETAG)).isTrue();
+    }
+
+    @Test
+    void matchesWildcard() {
+        assertThat(ETags.matches("*", ETAG)).isTrue();
+    }
+
+    @Test
+    void rejectsDifferentOrMissingTags() {
+        assertThat(ETags.matches("\"other\"", ETAG)).isFalse();
+        assertThat(ETags.matches("5d41402abc4b2a76", ETAG)).isFalse();
+        assertThat(ETags.matches(null, ETAG)).isFalse();
+        assertThat(ETags.matches("", ETAG)).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.dealshare.buddyai.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Shared setup for the *Benchmark classes, which only run with -Pbenchmark against
+ * a live MongoDB (MONGO_URI, default localhost) in a throwaway database.
+ */
+final class BenchmarkSupport {
+
+    static final String DATABASE = "buddyai_benchmark";
+
+    private BenchmarkSupport() {
+    }
+
+    static MongoClient client() {
+        String uri = System.getenv().getOrDefault("MONGO_URI", "mongodb://localhost:27017");
+        return MongoClients.create(uri);
+    }
+
+    static MongoTemplate template(MongoClient client) {
+        MongoTemplate template = new MongoTemplate(client, DATABASE);
+        template.getDb().drop();
+        return template;
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    /**
+     * Collects per-operation latencies from many threads and prints throughput and percentiles
+     */
+    static final class Latencies {
+        private final ConcurrentLinkedQueue<Long> nanos = new ConcurrentLinkedQueue<>();
+
+        void record(long startedNanos) {
+            nanos.add(System.nanoTime() - startedNanos);
+        }
+
+        void report(String name, long elapsedNanos) {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%-40s ops=%d  throughput=%.0f/s  p50=%.2fms  p99=%.2fms  max=%.2fms%n",
+                    name, sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
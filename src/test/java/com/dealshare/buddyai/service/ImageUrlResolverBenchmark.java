@@ -0,0 +1,77 @@
+package com.dealshare.buddyai.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Image filename resolution for a large catalog: the memoised, file-driven
+ * ImageUrlResolver against the inline if-chain it replaced. Names repeat with
+ * different pack sizes in parentheses, as seeded catalogs do, so the number of
+ * distinct cleaned names is much smaller than the number of products.
+ *
+ * mvn test -Pbenchmark -Dbenchmark.products=100000 -Dbenchmark.distinct-names=2000 -Dbenchmark.rounds=5
+ */
+class ImageUrlResolverBenchmark {
+
+    private static final String[] ITEMS = {
+            "Fresh Tomatoes", "Potatoes", "Basmati Rice", "Toor Dal", "Turmeric Powder",
+            "Full Cream Milk", "Paneer", "Green Tea", "Instant Coffee", "Potato Chips",
+            "Dark Chocolate", "Face Wash", "Toothpaste", "Shampoo", "Detergent Powder",
+            "Dish Wash Liquid", "Whey Protein Powder", "Wireless Earbuds", "LED Bulb", "Stainless Steel Water Bottle"
+    };
+
+    private static List<String> productNames;
+
+    @BeforeAll
+    static void setUp() {
+        int products = BenchmarkSupport.intProperty("products", 100000);
+        int distinct = BenchmarkSupport.intProperty("distinct-names", 2000);
+        productNames = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            int name = i % distinct;
+            productNames.add(ITEMS[name % ITEMS.length] + " Variant " + (name / ITEMS.length)
+                    + " (" + (i % 4 + 1) * 250 + " g)");
+        }
+    }
+
+    @Test
+    void inlineScan() {
+        run("inline scan", LegacyImageFilenames::convertToWikimediaFilename);
+    }
+
+    @Test
+    void memoisedResolver() {
+        ImageUrlResolver resolver = new ImageUrlResolver(new ClassPathResource("catalog/image-mappings.txt"), 100000);
+        run("memoised resolver", resolver::resolveFilename);
+    }
+
+    @Test
+    void resolverMatchesInlineScan() {
+        ImageUrlResolver resolver = new ImageUrlResolver(new ClassPathResource("catalog/image-mappings.txt"), 100000);
+        for (String name : productNames) {
+            assertThat(resolver.resolveFilename(name)).isEqualTo(LegacyImageFilenames.convertToWikimediaFilename(name));
+        }
+    }
+
+    private void run(String name, UnaryOperator<String> resolve) {
+        int rounds = BenchmarkSupport.intProperty("rounds", 5);
+        for (int round = 1; round <= rounds; round++) {
+            BenchmarkSupport.Latencies latencies = new BenchmarkSupport.Latencies();
+            long began = System.nanoTime();
+            for (String productName : productNames) {
+                long started = System.nanoTime();
+                String filename = resolve.apply(productName);
+                latencies.record(started);
+                assertThat(filename).isNotEmpty();
+            }
+            latencies.report(name + ", round " + round, System.nanoTime() - began);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.model.Product;
+import com.dealshare.buddyai.repository.ProductRepository;
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Concurrent checkouts on one hot SKU: every thread reserves one unit at a time until
+ * the attempts run out. Verifies that exactly min(stock, attempts) reservations succeed,
+ * stock never goes negative and no reservation tokens are left behind.
+ *
+ * mvn test -Pbenchmark -Dbenchmark.threads=64 -Dbenchmark.stock=5000 -Dbenchmark.attempts=10000
+ */
+class InventoryReservationBenchmark {
+
+    private static final int PRODUCT_ID = 1;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static InventoryReservationService reservations;
+
+    @BeforeAll
+    static void setUp() {
+        client = BenchmarkSupport.client();
+        mongoTemplate = BenchmarkSupport.template(client);
+        ProductCache productCache = new ProductCache(mock(ProductRepository.class), new SimpleMeterRegistry(),
+                1000, Duration.ofMinutes(1));
+        HotStockService hotStock = new HotStockService(mongoTemplate, productCache, false, "", "benchmark", 100, Duration.ofSeconds(30), 8);
+        reservations = new InventoryReservationService(mongoTemplate, productCache, hotStock);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void concurrentCheckoutsOnSameProduct() throws Exception {
+        int threads = BenchmarkSupport.intProperty("threads", 64);
+        int stock = BenchmarkSupport.intProperty("stock", 5000);
+        int attempts = BenchmarkSupport.intProperty("attempts", 10000);
+
+        mongoTemplate.insert(Product.builder()
+                .productId(PRODUCT_ID)
+                .productName("Benchmark SKU")
+                .price(10.0)
+                .availableStock(stock)
+                .build());
+
+        AtomicInteger remainingAttempts = new AtomicInteger(attempts);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        BenchmarkSupport.Latencies latencies = new BenchmarkSupport.Latencies();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                int attempt;
+                while ((attempt = remainingAttempts.decrementAndGet()) >= 0) {
+                    List<OrderItem> items = List.of(OrderItem.builder().productId(PRODUCT_ID).quantity(1).build());
+                    long began = System.nanoTime();
+                    try {
+                        reservations.reserve("bench-" + attempt, items);
+                        reserved.incrementAndGet();
+                    } catch (InventoryReservationService.InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    latencies.record(began);
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+        latencies.report("reserve, " + threads + " threads, 1 SKU", elapsed);
+
+        Product product = mongoTemplate.findOne(Query.query(Criteria.where("product_id").is(PRODUCT_ID)), Product.class);
+        assertThat(reserved.get()).isEqualTo(Math.min(stock, attempts));
+        assertThat(rejected.get()).isEqualTo(attempts - reserved.get());
+        assertThat(product.getAvailableStock()).isEqualTo(stock - reserved.get());
+        assertThat(mongoTemplate.exists(Query.query(Criteria.where("pending_reservations.0").exists(true)),
+                Product.class)).isFalse();
+    }
+}
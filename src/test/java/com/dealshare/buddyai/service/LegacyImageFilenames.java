@@ -0,0 +1,272 @@
+package com.dealshare.buddyai.service;
+
+/**
+ * The inline if-chain that ImageUrlResolver replaced, kept verbatim as the
+ * baseline for ImageUrlResolverBenchmark.
+ */
+final class LegacyImageFilenames {
+
+    private LegacyImageFilenames() {
+    }
+
+    static String convertToWikimediaFilename(String productName) {
+        // Clean product name: remove parentheses, extra text, convert to filename format
+        String cleaned = productName
+                .replaceAll("\\(.*?\\)", "") // Remove text in parentheses
+                .replaceAll("\\s+", "_") // Replace spaces with underscores
+                .trim();
+        
+        // Handle common product name variations
+        String lower = cleaned.toLowerCase();
+        
+        // Fruits & Vegetables
+        if (lower.contains("potato")) return "Potatoes.jpg";
+        if (lower.contains("onion")) return "Onion_on_White.JPG";
+        if (lower.contains("tomato")) return "Tomato.jpg";
+        if (lower.contains("carrot")) return "Carrots.jpg";
+        if (lower.contains("capsicum") || lower.contains("bell_pepper")) return "Bell_pepper.jpg";
+        if (lower.contains("cauliflower")) return "Cauliflower.jpg";
+        if (lower.contains("cabbage")) return "Cabbage.jpg";
+        if (lower.contains("brinjal") || lower.contains("eggplant")) return "Eggplant.jpg";
+        if (lower.contains("okra") || lower.contains("lady_finger")) return "Okra.jpg";
+        if (lower.contains("bottle_gourd") || lower.contains("lauki")) return "Bottle_gourd.jpg";
+        if (lower.contains("cucumber")) return "Cucumber.jpg";
+        if (lower.contains("radish")) return "Radish.jpg";
+        if (lower.contains("beetroot") || lower.contains("beet")) return "Beetroot.jpg";
+        if (lower.contains("spinach") || lower.contains("palak")) return "Spinach.jpg";
+        if (lower.contains("coriander") || lower.contains("cilantro")) return "Coriander.jpg";
+        if (lower.contains("mint")) return "Mint.jpg";
+        if (lower.contains("curry_leaves")) return "Curry_leaves.jpg";
+        if (lower.contains("chili") || lower.contains("chilli")) return "Green_chili.jpg";
+        if (lower.contains("ginger") || lower.contains("adrak")) return "Ginger.jpg";
+        if (lower.contains("garlic") || lower.contains("lehsun")) return "Garlic.jpg";
+        if (lower.contains("broccoli")) return "Broccoli.jpg";
+        if (lower.contains("mushroom")) return "Mushroom.jpg";
+        if (lower.contains("green_peas") || lower.contains("matar")) return "Green_peas.jpg";
+        
+        // Fruits
+        if (lower.contains("apple")) return "Apple.jpg";
+        if (lower.contains("banana")) return "Banana.jpg";
+        if (lower.contains("orange")) return "Orange.jpg";
+        if (lower.contains("grape")) return "Grapes.jpg";
+        if (lower.contains("pomegranate") || lower.contains("anar")) return "Pomegranate.jpg";
+        if (lower.contains("mango")) return "Mango.jpg";
+        if (lower.contains("watermelon")) return "Watermelon.jpg";
+        if (lower.contains("muskmelon") || lower.contains("cantaloupe")) return "Cantaloupe.jpg";
+        if (lower.contains("papaya")) return "Papaya.jpg";
+        if (lower.contains("guava") || lower.contains("amrud")) return "Guava.jpg";
+        if (lower.contains("pineapple")) return "Pineapple.jpg";
+        if (lower.contains("strawberry")) return "Strawberry.jpg";
+        if (lower.contains("kiwi")) return "Kiwi.jpg";
+        if (lower.contains("lime") || lower.contains("mosambi")) return "Lime.jpg";
+        if (lower.contains("custard_apple")) return "Custard_apple.jpg";
+        if (lower.contains("dragon_fruit")) return "Dragon_fruit.jpg";
+        if (lower.contains("avocado")) return "Avocado.jpg";
+        if (lower.contains("pear")) return "Pear.jpg";
+        if (lower.contains("plum")) return "Plum.jpg";
+        if (lower.contains("cherry")) return "Cherry.jpg";
+        if (lower.contains("litchi")) return "Litchi.jpg";
+        
+        // Grains & Pulses
+        if (lower.contains("rice")) return "Rice.jpg";
+        if (lower.contains("wheat") || lower.contains("atta") || lower.contains("flour")) return "Wheat.jpg";
+        if (lower.contains("gram_flour") || lower.contains("besan")) return "Gram_flour.jpg";
+        if (lower.contains("ragi")) return "Ragi.jpg";
+        if (lower.contains("bajra")) return "Bajra.jpg";
+        if (lower.contains("jowar")) return "Jowar.jpg";
+        if (lower.contains("dal") || lower.contains("lentil")) {
+            if (lower.contains("toor") || lower.contains("arhar")) return "Toor_dal.jpg";
+            if (lower.contains("moong")) return "Moong_dal.jpg";
+            if (lower.contains("chana")) return "Chana_dal.jpg";
+            if (lower.contains("urad")) return "Urad_dal.jpg";
+            if (lower.contains("masoor")) return "Masoor_dal.jpg";
+            return "Lentil.jpg";
+        }
+        if (lower.contains("rajma") || lower.contains("kidney_bean")) return "Kidney_beans.jpg";
+        if (lower.contains("quinoa")) return "Quinoa.jpg";
+        if (lower.contains("barley")) return "Barley.jpg";
+        if (lower.contains("oats")) return "Oats.jpg";
+        if (lower.contains("millet")) return "Millet.jpg";
+        if (lower.contains("buckwheat")) return "Buckwheat.jpg";
+        if (lower.contains("semolina") || lower.contains("suji") || lower.contains("rava")) return "Semolina.jpg";
+        if (lower.contains("couscous")) return "Couscous.jpg";
+        if (lower.contains("bulgur")) return "Bulgur.jpg";
+        if (lower.contains("pasta")) return "Pasta.jpg";
+        
+        // Spices & Condiments
+        if (lower.contains("turmeric")) return "Turmeric.jpg";
+        if (lower.contains("chili_powder") || lower.contains("red_chilli")) return "Red_chili_powder.jpg";
+        if (lower.contains("coriander_powder")) return "Coriander_powder.jpg";
+        if (lower.contains("cumin") || lower.contains("jeera")) return "Cumin.jpg";
+        if (lower.contains("garam_masala")) return "Garam_masala.jpg";
+        if (lower.contains("pepper") || lower.contains("black_pepper")) return "Black_pepper.jpg";
+        if (lower.contains("mustard")) return "Mustard_seeds.jpg";
+        if (lower.contains("fenugreek")) return "Fenugreek.jpg";
+        if (lower.contains("fennel")) return "Fennel.jpg";
+        if (lower.contains("cardamom")) return "Cardamom.jpg";
+        if (lower.contains("cinnamon")) return "Cinnamon.jpg";
+        if (lower.contains("clove")) return "Cloves.jpg";
+        if (lower.contains("bay_leaf")) return "Bay_leaves.jpg";
+        if (lower.contains("star_anise")) return "Star_anise.jpg";
+        if (lower.contains("saffron")) return "Saffron.jpg";
+        if (lower.contains("asafoetida") || lower.contains("hing")) return "Asafoetida.jpg";
+        if (lower.contains("tamarind")) return "Tamarind.jpg";
+        if (lower.contains("masala")) return "Spice_mix.jpg";
+        if (lower.contains("salt")) return "Salt.jpg";
+        if (lower.contains("sugar")) return "Sugar.jpg";
+        
+        // Dairy Products
+        if (lower.contains("milk")) return "Milk.jpg";
+        if (lower.contains("curd") || lower.contains("yogurt") || lower.contains("dahi")) return "Yogurt.jpg";
+        if (lower.contains("paneer") || lower.contains("cottage_cheese")) return "Paneer.jpg";
+        if (lower.contains("butter")) return "Butter.jpg";
+        if (lower.contains("ghee")) return "Ghee.jpg";
+        if (lower.contains("cheese")) {
+            if (lower.contains("mozzarella")) return "Mozzarella.jpg";
+            if (lower.contains("cheddar")) return "Cheddar_cheese.jpg";
+            return "Cheese.jpg";
+        }
+        if (lower.contains("cream")) return "Cream.jpg";
+        if (lower.contains("buttermilk")) return "Buttermilk.jpg";
+        if (lower.contains("ice_cream")) return "Ice_cream.jpg";
+        if (lower.contains("kulfi")) return "Kulfi.jpg";
+        
+        // Beverages
+        if (lower.contains("tea")) return "Tea.jpg";
+        if (lower.contains("coffee")) return "Coffee.jpg";
+        if (lower.contains("juice")) {
+            if (lower.contains("orange")) return "Orange_juice.jpg";
+            if (lower.contains("apple")) return "Apple_juice.jpg";
+            if (lower.contains("mango")) return "Mango_juice.jpg";
+            return "Fruit_juice.jpg";
+        }
+        if (lower.contains("coconut_water")) return "Coconut_water.jpg";
+        if (lower.contains("lemonade")) return "Lemonade.jpg";
+        if (lower.contains("lassi")) return "Lassi.jpg";
+        if (lower.contains("smoothie")) return "Smoothie.jpg";
+        if (lower.contains("energy_drink")) return "Energy_drink.jpg";
+        if (lower.contains("soft_drink") || lower.contains("cola")) return "Soft_drink.jpg";
+        if (lower.contains("water") && !lower.contains("coconut")) return "Mineral_water.jpg";
+        
+        // Snacks & Sweets
+        if (lower.contains("chip")) return "Potato_chips.jpg";
+        if (lower.contains("kurkure")) return "Kurkure.jpg";
+        if (lower.contains("namkeen") || lower.contains("mixture")) return "Namkeen.jpg";
+        if (lower.contains("bhujia")) return "Bhujia.jpg";
+        if (lower.contains("biscuit") || lower.contains("cookie")) return "Biscuit.jpg";
+        if (lower.contains("chocolate")) {
+            if (lower.contains("dark")) return "Dark_chocolate.jpg";
+            if (lower.contains("white")) return "White_chocolate.jpg";
+            return "Chocolate.jpg";
+        }
+        if (lower.contains("candy") || lower.contains("toffee")) return "Candy.jpg";
+        if (lower.contains("gulab_jamun")) return "Gulab_jamun.jpg";
+        if (lower.contains("rasgulla")) return "Rasgulla.jpg";
+        if (lower.contains("barfi")) return "Barfi.jpg";
+        if (lower.contains("ladoo")) return "Ladoo.jpg";
+        if (lower.contains("jalebi")) return "Jalebi.jpg";
+        if (lower.contains("cake")) return "Cake.jpg";
+        if (lower.contains("pastry")) return "Pastry.jpg";
+        if (lower.contains("donut")) return "Donut.jpg";
+        if (lower.contains("muffin")) return "Muffin.jpg";
+        if (lower.contains("brownie")) return "Brownie.jpg";
+        if (lower.contains("popcorn")) return "Popcorn.jpg";
+        if (lower.contains("nachos")) return "Nachos.jpg";
+        if (lower.contains("protein_bar")) return "Protein_bar.jpg";
+        if (lower.contains("trail_mix")) return "Trail_mix.jpg";
+        
+        // Personal Care
+        if (lower.contains("soap")) return "Soap.jpg";
+        if (lower.contains("body_wash")) return "Body_wash.jpg";
+        if (lower.contains("shampoo")) return "Shampoo.jpg";
+        if (lower.contains("conditioner")) return "Conditioner.jpg";
+        if (lower.contains("face_wash")) return "Face_wash.jpg";
+        if (lower.contains("toothpaste")) return "Toothpaste.jpg";
+        if (lower.contains("toothbrush")) return "Toothbrush.jpg";
+        if (lower.contains("mouthwash")) return "Mouthwash.jpg";
+        if (lower.contains("sanitizer")) return "Hand_sanitizer.jpg";
+        if (lower.contains("deodorant")) return "Deodorant.jpg";
+        if (lower.contains("perfume")) return "Perfume.jpg";
+        if (lower.contains("lotion")) return "Body_lotion.jpg";
+        if (lower.contains("cream") && !lower.contains("ice")) {
+            if (lower.contains("face")) return "Face_cream.jpg";
+            if (lower.contains("moisturizing")) return "Moisturizing_cream.jpg";
+            return "Cream.jpg";
+        }
+        if (lower.contains("sunscreen")) return "Sunscreen.jpg";
+        if (lower.contains("hair_oil")) return "Hair_oil.jpg";
+        if (lower.contains("shaving")) return "Shaving_cream.jpg";
+        if (lower.contains("razor")) return "Razor.jpg";
+        if (lower.contains("cotton_swab")) return "Cotton_swab.jpg";
+        if (lower.contains("tissue")) return "Tissue_paper.jpg";
+        if (lower.contains("talcum_powder")) return "Talcum_powder.jpg";
+        if (lower.contains("lipstick")) return "Lipstick.jpg";
+        if (lower.contains("kajal")) return "Kajal.jpg";
+        if (lower.contains("bb_cream")) return "BB_cream.jpg";
+        if (lower.contains("nail_polish")) return "Nail_polish.jpg";
+        if (lower.contains("hair_serum")) return "Hair_serum.jpg";
+        
+        // Household & Cleaning
+        if (lower.contains("detergent")) return "Detergent.jpg";
+        if (lower.contains("dish_soap") || lower.contains("dishwash")) return "Dish_soap.jpg";
+        if (lower.contains("floor_cleaner")) return "Floor_cleaner.jpg";
+        if (lower.contains("toilet_cleaner")) return "Toilet_cleaner.jpg";
+        if (lower.contains("glass_cleaner")) return "Glass_cleaner.jpg";
+        if (lower.contains("polish")) return "Furniture_polish.jpg";
+        if (lower.contains("air_freshener")) return "Air_freshener.jpg";
+        if (lower.contains("mosquito") || lower.contains("repellent")) return "Mosquito_repellent.jpg";
+        if (lower.contains("pest_control")) return "Pest_control.jpg";
+        if (lower.contains("trash_bag") || lower.contains("garbage_bag")) return "Trash_bag.jpg";
+        if (lower.contains("sponge")) return "Dish_sponge.jpg";
+        if (lower.contains("scrubber")) return "Scrubber.jpg";
+        if (lower.contains("dustbin") || lower.contains("trash_can")) return "Dustbin.jpg";
+        if (lower.contains("broom")) return "Broom.jpg";
+        if (lower.contains("mop")) return "Mop.jpg";
+        if (lower.contains("bucket")) return "Bucket.jpg";
+        if (lower.contains("duster")) return "Duster.jpg";
+        if (lower.contains("cleaning_cloth") || lower.contains("rag")) return "Cleaning_cloth.jpg";
+        if (lower.contains("disinfectant")) return "Disinfectant.jpg";
+        if (lower.contains("washing_powder")) return "Washing_powder.jpg";
+        if (lower.contains("kitchen_wipes")) return "Kitchen_wipes.jpg";
+        
+        // Oils
+        if (lower.contains("cooking_oil") || lower.contains("sunflower_oil")) return "Cooking_oil.jpg";
+        if (lower.contains("olive_oil")) return "Olive_oil.jpg";
+        if (lower.contains("mustard_oil")) return "Mustard_oil.jpg";
+        if (lower.contains("coconut_oil")) return "Coconut_oil.jpg";
+        
+        // Other
+        if (lower.contains("honey")) return "Honey.jpg";
+        if (lower.contains("peanut_butter")) return "Peanut_butter.jpg";
+        if (lower.contains("cereal") || lower.contains("cornflakes")) return "Cereal.jpg";
+        if (lower.contains("noodles") || lower.contains("maggi")) return "Noodles.jpg";
+        if (lower.contains("chicken")) return "Chicken.jpg";
+        if (lower.contains("multivitamin") || lower.contains("vitamin")) return "Multivitamin.jpg";
+        if (lower.contains("protein_powder") || lower.contains("whey")) return "Protein_powder.jpg";
+        if (lower.contains("omega") || lower.contains("fish_oil")) return "Fish_oil.jpg";
+        
+        // Electronics (fallback to generic)
+        if (lower.contains("earbud") || lower.contains("headphone")) return "Headphones.jpg";
+        if (lower.contains("tv") || lower.contains("television")) return "TV.jpg";
+        if (lower.contains("speaker")) return "Speaker.jpg";
+        if (lower.contains("power_bank")) return "Power_bank.jpg";
+        if (lower.contains("mouse")) return "Mouse.jpg";
+        if (lower.contains("cable") || lower.contains("usb")) return "USB_cable.jpg";
+        if (lower.contains("watch") || lower.contains("fitness")) return "Smart_watch.jpg";
+        if (lower.contains("keyboard")) return "Keyboard.jpg";
+        if (lower.contains("webcam")) return "Webcam.jpg";
+        if (lower.contains("pendrive")) return "Pendrive.jpg";
+        if (lower.contains("extension_cord")) return "Extension_cord.jpg";
+        if (lower.contains("bulb") || lower.contains("led")) return "LED_bulb.jpg";
+        if (lower.contains("fan")) return "Fan.jpg";
+        if (lower.contains("iron")) return "Iron.jpg";
+        if (lower.contains("water_heater")) return "Water_heater.jpg";
+        if (lower.contains("charger")) return "Charger.jpg";
+        if (lower.contains("lunch_box")) return "Lunch_box.jpg";
+        if (lower.contains("water_bottle")) return "Water_bottle.jpg";
+        if (lower.contains("frying_pan") || lower.contains("non_stick")) return "Frying_pan.jpg";
+        
+        // Default: convert cleaned name to filename format
+        return cleaned.substring(0, Math.min(cleaned.length(), 50)) + ".jpg";
+    }
+}
@@ -0,0 +1,126 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.model.Order;
+import com.dealshare.buddyai.model.OrderItem;
+import com.dealshare.buddyai.repository.OrderRepository;
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order insert latency and throughput with and without group commit, at several
+ * levels of concurrent checkouts. Every acknowledged order must be in Mongo exactly once.
+ *
+ * mvn test -Pbenchmark -Dbenchmark.orders=20000 -Dbenchmark.window-ms=5 -Dbenchmark.batch-size=100
+ */
+class OrderWriterBenchmark {
+
+    private static final int[] LOAD_LEVELS = {1, 8, 32, 128};
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static OrderRepository orderRepository;
+
+    private final AtomicInteger nextOrderId = new AtomicInteger();
+
+    @BeforeAll
+    static void setUp() {
+        client = BenchmarkSupport.client();
+        mongoTemplate = BenchmarkSupport.template(client);
+        orderRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(OrderRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void directInserts() throws Exception {
+        for (int threads : LOAD_LEVELS) {
+            run(false, threads);
+        }
+    }
+
+    @Test
+    void groupCommitInserts() throws Exception {
+        for (int threads : LOAD_LEVELS) {
+            run(true, threads);
+        }
+    }
+
+    private void run(boolean groupCommit, int threads) throws Exception {
+        int orders = BenchmarkSupport.intProperty("orders", 20000);
+        OrderWriter writer = new OrderWriter(orderRepository, mongoTemplate, new SimpleMeterRegistry(), groupCommit,
+                BenchmarkSupport.intProperty("window-ms", 5), BenchmarkSupport.intProperty("batch-size", 100),
+                10000, Duration.ofSeconds(30));
+        writer.start();
+        mongoTemplate.remove(new Query(), Order.class);
+
+        AtomicInteger remaining = new AtomicInteger(orders);
+        BenchmarkSupport.Latencies latencies = new BenchmarkSupport.Latencies();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                while (remaining.decrementAndGet() >= 0) {
+                    Order order = newOrder();
+                    long began = System.nanoTime();
+                    writer.insert(order);
+                    latencies.record(began);
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+        writer.stop();
+        latencies.report((groupCommit ? "group commit, " : "direct, ") + threads + " threads", elapsed);
+
+        assertThat(mongoTemplate.count(new Query(), Order.class)).isEqualTo(orders);
+    }
+
+    private Order newOrder() {
+        int orderId = nextOrderId.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        return Order.builder()
+                .orderId(orderId)
+                .userId(orderId % 1000)
+                .orderItems(List.of(OrderItem.builder().productId(1).quantity(1).unitPrice(10.0).totalPrice(10.0).build()))
+                .totalAmount(10.0)
+                .paymentMethod("COD")
+                .status("Ordered")
+                .orderDate(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
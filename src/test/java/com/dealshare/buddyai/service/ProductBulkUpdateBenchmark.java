@@ -0,0 +1,97 @@
+package com.dealshare.buddyai.service;
+
+import com.dealshare.buddyai.dto.BulkItemResultDTO;
+import com.dealshare.buddyai.dto.ProductAttributeUpdateDTO;
+import com.dealshare.buddyai.model.Product;
+import com.dealshare.buddyai.repository.ProductRepository;
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk update requests of 10k items each, repeated a few times against a seeded
+ * catalog. Reports end-to-end time per request.
+ *
+ * mvn test -Pbenchmark -Dbenchmark.products=10000 -Dbenchmark.rounds=5 -Dbenchmark.batch-size=1000
+ */
+class ProductBulkUpdateBenchmark {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ProductBulkUpdateService bulkUpdates;
+
+    @BeforeAll
+    static void setUp() {
+        client = BenchmarkSupport.client();
+        mongoTemplate = BenchmarkSupport.template(client);
+        ProductCache productCache = new ProductCache(mock(ProductRepository.class), new SimpleMeterRegistry(),
+                1000, Duration.ofMinutes(1));
+        bulkUpdates = new ProductBulkUpdateService(mongoTemplate, productCache, mock(HotStockService.class),
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(bulkUpdates, "batchSize", BenchmarkSupport.intProperty("batch-size", 1000));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void tenThousandItemRequest() {
+        int products = BenchmarkSupport.intProperty("products", 10000);
+        int rounds = BenchmarkSupport.intProperty("rounds", 5);
+
+        List<Product> catalog = new ArrayList<>(products);
+        for (int id = 1; id <= products; id++) {
+            catalog.add(Product.builder()
+                    .productId(id)
+                    .productName("Product " + id)
+                    .price(100.0)
+                    .availableStock(10)
+                    .build());
+        }
+        mongoTemplate.insertAll(catalog);
+        mongoTemplate.indexOps(Product.class).ensureIndex(
+                new Index().on("product_id", Sort.Direction.ASC).unique().named("product_id_unique"));
+
+        BenchmarkSupport.Latencies latencies = new BenchmarkSupport.Latencies();
+        long began = System.nanoTime();
+        for (int round = 1; round <= rounds; round++) {
+            List<ProductAttributeUpdateDTO> updates = new ArrayList<>(products);
+            for (int id = 1; id <= products; id++) {
+                updates.add(ProductAttributeUpdateDTO.builder()
+                        .product_id(id)
+                        .price(100.0 + round)
+                        .available_stock(round)
+                        .build());
+            }
+            long requestStarted = System.nanoTime();
+            List<BulkItemResultDTO> results = bulkUpdates.applyUpdates(updates);
+            latencies.record(requestStarted);
+
+            assertThat(results).hasSize(products);
+            assertThat(results).allMatch(result -> ProductBulkUpdateService.STATUS_UPDATED.equals(result.getStatus()));
+        }
+        latencies.report("bulk update, " + products + " items/request", System.nanoTime() - began);
+
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("price").is(100.0 + rounds)
+                .and("available_stock").is(rounds)), Product.class)).isEqualTo(products);
+    }
+}
@@ -0,0 +1,132 @@
+package com.dealshare.buddyai.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hi/lo allocation against a counters collection stubbed with an atomic $inc, shared by
+ * several SequenceService instances the way several app instances share one Mongo.
+ */
+class SequenceServiceTest {
+
+    private static final int BLOCK_SIZE = 50;
+
+    private final AtomicLong counter = new AtomicLong();
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("counters")))
+                .thenAnswer(invocation -> new Document("seq", counter.addAndGet(BLOCK_SIZE)));
+        when(mongoTemplate.findById(anyString(), eq(Document.class), eq("counters")))
+                .thenAnswer(invocation -> new Document("seq", counter.get()));
+        // $max of the floor
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("counters")))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    long floor = ((Number) update.getUpdateObject().get("$max", Document.class).get("seq")).longValue();
+                    counter.accumulateAndGet(floor, Math::max);
+                    return null;
+                });
+    }
+
+    @Test
+    void concurrentCallersAcrossInstancesNeverGetTheSameId() throws Exception {
+        List<SequenceService> instances = List.of(newService(), newService(), newService());
+        int threads = 24;
+        int idsPerThread = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SequenceService service = instances.get(t % instances.size());
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    assertThat(ids.add(service.next("orders", () -> 10_000L))).isTrue();
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        pool.shutdown();
+
+        int total = threads * idsPerThread;
+        assertThat(ids).hasSize(total);
+        assertThat(ids.stream().mapToLong(Long::longValue).min().orElseThrow()).isGreaterThan(10_000L);
+        // Allocation is in memory between blocks; thousands of orders per second is a very low bar
+        assertThat(total / seconds).isGreaterThan(5_000);
+    }
+
+    @Test
+    void idsContinueAfterTheLegacyFloor() {
+        SequenceService service = newService();
+        assertThat(service.next("feedback", () -> 700L)).isEqualTo(701L);
+        assertThat(service.next("feedback", () -> 700L)).isEqualTo(702L);
+    }
+
+    @Test
+    void nextIntFailsClearlyOncePastIntRange() {
+        SequenceService service = newService();
+        assertThatThrownBy(() -> service.nextInt("feedback", () -> Integer.MAX_VALUE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not fit in an int");
+    }
+
+    @Test
+    void startupCheckRejectsFloorNearIntLimit() {
+        SequenceService service = newService();
+        assertThatThrownBy(() -> service.requireIntHeadroom("orders", () -> Integer.MAX_VALUE - 10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("orders");
+    }
+
+    @Test
+    void startupCheckAcceptsSequenceWithHeadroom() {
+        SequenceService service = newService();
+        service.requireIntHeadroom("orders", () -> 10_000L);
+        assertThat(service.nextInt("orders", () -> 10_000L)).isEqualTo(10_001);
+    }
+
+    private SequenceService newService() {
+        SequenceService service = new SequenceService(mongoTemplate);
+        ReflectionTestUtils.setField(service, "blockSize", BLOCK_SIZE);
+        ReflectionTestUtils.setField(service, "minIntHeadroom", 1_000_000L);
+        return service;
+    }
+}